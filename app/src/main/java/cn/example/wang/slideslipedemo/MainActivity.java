@@ -12,6 +12,7 @@ import java.util.List;
 
 import cn.we.swipe.helper.WeSwipe;
 import cn.we.swipe.helper.WeSwipeHelper;
+import cn.we.swipe.helper.WeSwipeItemAnimator;
 
 /**
  * 1.侧滑的距离可控。
@@ -53,11 +54,14 @@ public class MainActivity extends AppCompatActivity implements RecAdapter.Delete
     private void initView() {
         recyclerView = findViewById(R.id.recyclerView);
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        //删除打开的Item的时候直接从当前位置滑出,不需要先关闭。
+        recyclerView.setItemAnimator(new WeSwipeItemAnimator());
         recAdapter = new RecAdapter(this);
         recAdapter.setDelectedItemListener(this);
         recyclerView.setAdapter(recAdapter);
         //设置WeSwipe。
-        WeSwipe weSwipe = WeSwipe.attach(recyclerView).setType(WeSwipeHelper.SWIPE_ITEM_TYPE_FLOWING);
+        WeSwipe weSwipe = WeSwipe.attach(recyclerView).setType(WeSwipeHelper.SWIPE_ITEM_TYPE_FLOWING)
+                .setMenuPrefetch(true);
         recAdapter.setWeSwipe(weSwipe);
     }
 
@@ -13,6 +13,7 @@ import android.widget.Toast;
 import java.util.ArrayList;
 import java.util.List;
 
+import cn.we.swipe.helper.SwipeMenuProvider;
 import cn.we.swipe.helper.WeSwipeHelper;
 import cn.we.swipe.helper.WeSwipeProxyAdapter;
 
@@ -69,27 +70,6 @@ public class RecAdapter extends WeSwipeProxyAdapter<RecAdapter.RecViewholder> {
                 Toast.makeText(context, "s  " + holder.getAdapterPosition(), Toast.LENGTH_SHORT).show();
             }
         });
-
-        holder.zhiding.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                Toast.makeText(context, "置顶" + holder.getAdapterPosition(), Toast.LENGTH_SHORT).show();
-            }
-        });
-        holder.yidu.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                Toast.makeText(context, "已读" + holder.getAdapterPosition(), Toast.LENGTH_SHORT).show();
-            }
-        });
-        holder.shanchu.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                if (null != delectedItemListener) {
-                    delectedItemListener.deleted(holder.getAdapterPosition());
-                }
-            }
-        });
     }
 
     @Override
@@ -100,23 +80,60 @@ public class RecAdapter extends WeSwipeProxyAdapter<RecAdapter.RecViewholder> {
 
     /**
      * view.getWidth()获取的是屏幕中可以看到的大小.
+     * 菜单在第一次侧滑的时候才创建,见{@link SwipeMenuProvider}.
      */
-    public class RecViewholder extends RecyclerView.ViewHolder implements WeSwipeHelper.SwipeLayoutTypeCallBack {
+    public class RecViewholder extends RecyclerView.ViewHolder implements WeSwipeHelper.SwipeLayoutTypeCallBack,
+            SwipeMenuProvider {
         public TextView textView;
         public LinearLayout slide;
-        public TextView zhiding, yidu, shanchu;
         public RelativeLayout slideItem;
 
         public RecViewholder(View itemView) {
             super(itemView);
             textView = itemView.findViewById(R.id.item_text);
-            zhiding = itemView.findViewById(R.id.zhiding);
-            yidu = itemView.findViewById(R.id.yidu);
-            shanchu = itemView.findViewById(R.id.shanchu);
-            slide = itemView.findViewById(R.id.slide);
             slideItem = itemView.findViewById(R.id.slide_itemView);
         }
 
+        @Override
+        public int getMenuLayoutId() {
+            return R.layout.layout_item_menu;
+        }
+
+        @Override
+        public ViewGroup getMenuParent() {
+            return slideItem;
+        }
+
+        @Override
+        public View getMenu() {
+            return slide;
+        }
+
+        @Override
+        public void onMenuAttached(View menu) {
+            slide = (LinearLayout) menu;
+            slide.findViewById(R.id.zhiding).setOnClickListener(new View.OnClickListener() {
+                @Override
+                public void onClick(View v) {
+                    Toast.makeText(context, "置顶" + getAdapterPosition(), Toast.LENGTH_SHORT).show();
+                }
+            });
+            slide.findViewById(R.id.yidu).setOnClickListener(new View.OnClickListener() {
+                @Override
+                public void onClick(View v) {
+                    Toast.makeText(context, "已读" + getAdapterPosition(), Toast.LENGTH_SHORT).show();
+                }
+            });
+            slide.findViewById(R.id.shanchu).setOnClickListener(new View.OnClickListener() {
+                @Override
+                public void onClick(View v) {
+                    if (null != delectedItemListener) {
+                        delectedItemListener.deleted(getAdapterPosition());
+                    }
+                }
+            });
+        }
+
         @Override
         public float getSwipeWidth() {
             //布局隐藏超过父布局的范围的时候这里得不到宽度
@@ -13,6 +13,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import cn.we.swipe.helper.WeSwipe;
+import cn.we.swipe.helper.WeSwipeDiffCallback;
 import cn.we.swipe.helper.WeSwipeHelper;
 import cn.we.swipe.helper.WeSwipeProxyAdapter;
 
@@ -37,13 +38,37 @@ public class RecOtherTypeAdapter extends WeSwipeProxyAdapter<RecOtherTypeAdapter
     }
 
     public void setList(List<String> list, boolean refresh) {
-        if (refresh) {
-            data.clear();
+        List<String> newList = new ArrayList<>();
+        if (!refresh) {
+            newList.addAll(data);
         }
-        data.addAll(list);
-        proxyNotifyDataSetChanged();
+        newList.addAll(list);
+        //只刷新变化的部分,加载更多的时候只会插入新的Item.
+        submitList(newList, mDiffCallback);
     }
 
+    private final WeSwipeDiffCallback<String> mDiffCallback = new WeSwipeDiffCallback<String>() {
+        @Override
+        public List<String> getCurrentList() {
+            return data;
+        }
+
+        @Override
+        public void setCurrentList(List<String> newList) {
+            data = newList;
+        }
+
+        @Override
+        public boolean areItemsTheSame(String oldItem, String newItem) {
+            return oldItem.equals(newItem);
+        }
+
+        @Override
+        public boolean areContentsTheSame(String oldItem, String newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
     public void removeDataByPosition(int position) {
         if (position >= 0 && position < data.size()) {
             data.remove(position);
@@ -90,7 +115,7 @@ public class RecOtherTypeAdapter extends WeSwipeProxyAdapter<RecOtherTypeAdapter
     /**
      * view.getWidth()获取的是屏幕中可以看到的大小.
      */
-    public class RecViewHolder extends RecyclerView.ViewHolder implements WeSwipeHelper.SwipeLayoutTypeCallBack {
+    public class RecViewHolder extends RecyclerView.ViewHolder implements WeSwipeHelper.SwipeMenuCallBack {
         public TextView textView;
         public TextView slide;
 
@@ -115,6 +140,11 @@ public class RecOtherTypeAdapter extends WeSwipeProxyAdapter<RecOtherTypeAdapter
         public View onScreenView() {
             return textView;
         }
+
+        @Override
+        public View getMenuView() {
+            return slide;
+        }
     }
 
     /**
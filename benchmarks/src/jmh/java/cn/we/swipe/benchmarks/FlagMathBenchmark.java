@@ -0,0 +1,65 @@
+package cn.we.swipe.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import cn.we.swipe.core.SwipeDirections;
+
+/**
+ * Created to : Callback中方向标记的计算,每个MOVE事件都会走到这些方法.
+ * <p>
+ * 输入放在字段里面,防止JIT把结果当成常量折叠掉.
+ *
+ * @author WANG
+ */
+@State(Scope.Thread)
+public class FlagMathBenchmark {
+
+    @Param({"0", "1"})
+    public int layoutDirection;
+
+    private int mDragFlags;
+
+    private int mSwipeFlags;
+
+    private int mRelativeFlags;
+
+    private int mAbsoluteFlags;
+
+    @Setup
+    public void setUp() {
+        mDragFlags = SwipeDirections.UP | SwipeDirections.DOWN;
+        mSwipeFlags = SwipeDirections.START | SwipeDirections.END;
+        mRelativeFlags = SwipeDirections.makeMovementFlags(mDragFlags, mSwipeFlags);
+        mAbsoluteFlags = SwipeDirections.makeMovementFlags(mDragFlags,
+                SwipeDirections.LEFT | SwipeDirections.RIGHT);
+    }
+
+    @Benchmark
+    public int makeMovementFlags() {
+        return SwipeDirections.makeMovementFlags(mDragFlags, mSwipeFlags);
+    }
+
+    @Benchmark
+    public int convertToAbsoluteDirection() {
+        return SwipeDirections.convertToAbsoluteDirection(mRelativeFlags, layoutDirection);
+    }
+
+    @Benchmark
+    public int convertToRelativeDirection() {
+        return SwipeDirections.convertToRelativeDirection(mAbsoluteFlags, layoutDirection);
+    }
+
+    /**
+     * getAbsoluteMovementFlags之后取出SWIPE状态下的方向,checkSelectForSwipe和select中的组合.
+     */
+    @Benchmark
+    public int absoluteSwipeFlags() {
+        return SwipeDirections.flagsForState(
+                SwipeDirections.convertToAbsoluteDirection(mRelativeFlags, layoutDirection),
+                SwipeDirections.ACTION_STATE_SWIPE);
+    }
+}
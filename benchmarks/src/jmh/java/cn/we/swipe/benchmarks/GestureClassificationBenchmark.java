@@ -0,0 +1,116 @@
+package cn.we.swipe.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import cn.we.swipe.core.SwipeDecisions;
+import cn.we.swipe.core.SwipeDirections;
+
+/**
+ * Created to : 每个触摸事件在WeSwipeHelper中的判断开销,每一次操作处理事件流中的一个事件.
+ * <p>
+ * DOWN记录按下的位置; 没有选中Item之前的MOVE和checkSelectForSwipe一样计算绝对方向和是否开始侧滑;
+ * 选中之后的MOVE和updateDxDy一样限制位移; UP和swipeIfNecessary, select一样判断侧滑的方向.
+ *
+ * @author WANG
+ */
+@State(Scope.Thread)
+public class GestureClassificationBenchmark {
+
+    private static final float SLOP = 16;
+
+    private static final float ESCAPE_VELOCITY = 1920;
+
+    private static final float TRACK_WIDTH = 1080;
+
+    private static final float TRACK_HEIGHT = 1920;
+
+    private static final float SWIPE_THRESHOLD = .5f;
+
+    @Param({"60", "120", "240"})
+    public int sampleRateHz;
+
+    @Param({"0", "1"})
+    public int layoutDirection;
+
+    private TouchStream mStream;
+
+    private int mCursor;
+
+    private int mMovementFlags;
+
+    private float mInitialX;
+
+    private float mInitialY;
+
+    private boolean mSelected;
+
+    private int mSelectedFlags;
+
+    private float mDx;
+
+    private float mDy;
+
+    @Setup
+    public void setUp() {
+        mStream = TouchStream.create(sampleRateHz, 42);
+        mMovementFlags = SwipeDirections.makeMovementFlags(0,
+                SwipeDirections.START | SwipeDirections.END);
+        mCursor = 0;
+    }
+
+    @Benchmark
+    public int classifyEvent() {
+        final TouchStream stream = mStream;
+        final int i = mCursor;
+        mCursor = i + 1 == stream.size ? 0 : i + 1;
+        final float x = stream.xs[i];
+        final float y = stream.ys[i];
+        switch (stream.actions[i]) {
+            case TouchStream.ACTION_DOWN:
+                mInitialX = x;
+                mInitialY = y;
+                mSelected = false;
+                mDx = mDy = 0;
+                return 0;
+            case TouchStream.ACTION_MOVE:
+                if (mSelected) {
+                    mDx = SwipeDirections.clampDx(x - mInitialX, mSelectedFlags);
+                    mDy = SwipeDirections.clampDy(y - mInitialY, mSelectedFlags);
+                    return 1;
+                }
+                final float dx = x - mInitialX;
+                final float dy = y - mInitialY;
+                if (!SwipeDecisions.isPastSlop(dx, dy, SLOP)
+                        || SwipeDecisions.isScrollGesture(dx, dy, false, true)) {
+                    return 0;
+                }
+                final int absolute = SwipeDirections.convertToAbsoluteDirection(mMovementFlags,
+                        layoutDirection);
+                if (SwipeDecisions.canStartSwipe(dx, dy, SLOP,
+                        SwipeDirections.swipeFlags(absolute))) {
+                    mSelected = true;
+                    mSelectedFlags = SwipeDirections.flagsForState(absolute,
+                            SwipeDirections.ACTION_STATE_SWIPE);
+                    mDx = SwipeDirections.clampDx(dx, mSelectedFlags);
+                    mDy = SwipeDirections.clampDy(dy, mSelectedFlags);
+                    return 2;
+                }
+                return 0;
+            default:
+                if (!mSelected) {
+                    return 0;
+                }
+                mSelected = false;
+                final int absoluteFlags = SwipeDirections.swipeFlags(
+                        SwipeDirections.convertToAbsoluteDirection(mMovementFlags, layoutDirection));
+                return SwipeDecisions.resolveSwipeDirection(absoluteFlags,
+                        SwipeDirections.swipeFlags(mMovementFlags), layoutDirection, mDx, mDy, true,
+                        stream.xVelocities[i], stream.yVelocities[i], ESCAPE_VELOCITY,
+                        TRACK_WIDTH * SWIPE_THRESHOLD, TRACK_HEIGHT * SWIPE_THRESHOLD);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package cn.we.swipe.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Created to : 合成的触摸事件流,按照给定的采样率生成.
+ * <p>
+ * 一轮包含四个手势: 向左侧滑打开, 点击, 竖直滚动列表, 向右快速滑动关闭.
+ * 采样率越高,同样的手势产生的MOVE事件越多,每个事件的位移越小,
+ * 可以用来观察每个事件的开销和采样率的关系.
+ *
+ * @author WANG
+ */
+final class TouchStream {
+
+    static final int ACTION_DOWN = 0;
+
+    static final int ACTION_MOVE = 1;
+
+    static final int ACTION_UP = 2;
+
+    final int[] actions;
+
+    final float[] xs;
+
+    final float[] ys;
+
+    /**
+     * 只有ACTION_UP事件有值,像素每秒.
+     */
+    final float[] xVelocities;
+
+    final float[] yVelocities;
+
+    final int size;
+
+    private int mCount;
+
+    private final Random mRandom;
+
+    private TouchStream(int capacity, long seed) {
+        actions = new int[capacity];
+        xs = new float[capacity];
+        ys = new float[capacity];
+        xVelocities = new float[capacity];
+        yVelocities = new float[capacity];
+        mRandom = new Random(seed);
+        size = capacity;
+    }
+
+    /**
+     * @param sampleRateHz 触摸屏的采样率,比如60,120,240.
+     * @param seed         抖动的随机种子,固定的种子保证每次的输入一样.
+     */
+    static TouchStream create(int sampleRateHz, long seed) {
+        final float frameMs = 1000f / sampleRateHz;
+        final int swipeEvents = events(280, frameMs);
+        final int tapEvents = events(60, frameMs);
+        final int scrollEvents = events(400, frameMs);
+        final int flingEvents = events(90, frameMs);
+        TouchStream stream = new TouchStream(swipeEvents + tapEvents + scrollEvents + flingEvents
+                + 4 * 2, seed);
+        // 向左侧滑打开菜单,带一点竖直方向的漂移.
+        stream.gesture(900, 300, -520, 18, swipeEvents, frameMs);
+        // 点击菜单,手指几乎不动.
+        stream.gesture(820, 300, 2, 1, tapEvents, frameMs);
+        // 竖直滚动列表.
+        stream.gesture(540, 1400, 30, -900, scrollEvents, frameMs);
+        // 向右快速滑动.
+        stream.gesture(300, 450, 560, -12, flingEvents, frameMs);
+        return stream;
+    }
+
+    private static int events(int durationMs, float frameMs) {
+        return Math.max(1, Math.round(durationMs / frameMs));
+    }
+
+    private void gesture(float startX, float startY, float distanceX, float distanceY,
+                         int moveCount, float frameMs) {
+        add(ACTION_DOWN, startX, startY, 0, 0);
+        float lastX = startX;
+        float lastY = startY;
+        for (int i = 1; i <= moveCount; i++) {
+            // ease out, 手指先快后慢.
+            float t = (float) i / moveCount;
+            float progress = 1 - (1 - t) * (1 - t);
+            lastX = startX + distanceX * progress + jitter();
+            lastY = startY + distanceY * progress + jitter();
+            add(ACTION_MOVE, lastX, lastY, 0, 0);
+        }
+        // 抬起时的速度取整个手势的平均速度.
+        float seconds = moveCount * frameMs / 1000f;
+        add(ACTION_UP, lastX, lastY, distanceX / seconds, distanceY / seconds);
+    }
+
+    private float jitter() {
+        return (mRandom.nextFloat() - .5f) * 1.5f;
+    }
+
+    private void add(int action, float x, float y, float xVelocity, float yVelocity) {
+        actions[mCount] = action;
+        xs[mCount] = x;
+        ys[mCount] = y;
+        xVelocities[mCount] = xVelocity;
+        yVelocities[mCount] = yVelocity;
+        mCount++;
+    }
+}
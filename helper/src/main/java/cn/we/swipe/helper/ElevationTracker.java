@@ -0,0 +1,147 @@
+package cn.we.swipe.helper;
+
+import android.support.v4.view.ViewCompat;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+/**
+ * Created to : 记录RecyclerView中Item的最大elevation,以及被提升的Item原来的elevation.
+ * <p>
+ * 最大值在Item attach/detach的时候更新,开始侧滑的时候不需要遍历所有的Item;只有detach的正好是
+ * 最大值的最后一个Item的时候,下次使用之前重新遍历一次.原来的elevation保存在基本类型的数组中,
+ * 不需要用tag保存装箱的Float.
+ *
+ * @author WANG
+ */
+final class ElevationTracker {
+
+    private RecyclerView mRecyclerView;
+
+    /**
+     * attach的Item原来的elevation中的最大值,以及等于最大值的Item的数量.
+     */
+    private float mMax;
+
+    private int mMaxCount;
+
+    private boolean mDirty = true;
+
+    /**
+     * 被提升的Item和它们原来的elevation,同时只有选中的和正在恢复的几个.
+     */
+    private View[] mRaisedViews = new View[4];
+
+    private float[] mOriginalElevations = new float[4];
+
+    private int mRaisedCount;
+
+    void attach(RecyclerView recyclerView) {
+        mRecyclerView = recyclerView;
+        mDirty = true;
+        for (int i = 0; i < mRaisedCount; i++) {
+            mRaisedViews[i] = null;
+        }
+        mRaisedCount = 0;
+    }
+
+    void onChildAttached(View child) {
+        if (!mDirty) {
+            include(child);
+        }
+    }
+
+    void onChildDetached(View child) {
+        if (mDirty) {
+            return;
+        }
+        final float elevation = originalElevationOf(child);
+        if (elevation > mMax || (elevation == mMax && --mMaxCount <= 0)) {
+            // attach之后修改过elevation,或者最大值的Item都不在了.
+            mDirty = true;
+        }
+    }
+
+    /**
+     * 把view提升到所有Item的上面,已经提升过的话不做任何事情.
+     */
+    void raise(View view) {
+        if (indexOf(view) >= 0) {
+            return;
+        }
+        float max = getMaxElevation();
+        for (int i = 0; i < mRaisedCount; i++) {
+            max = Math.max(max, ViewCompat.getElevation(mRaisedViews[i]));
+        }
+        if (mRaisedCount == mRaisedViews.length) {
+            View[] views = new View[mRaisedCount * 2];
+            float[] elevations = new float[mRaisedCount * 2];
+            System.arraycopy(mRaisedViews, 0, views, 0, mRaisedCount);
+            System.arraycopy(mOriginalElevations, 0, elevations, 0, mRaisedCount);
+            mRaisedViews = views;
+            mOriginalElevations = elevations;
+        }
+        mRaisedViews[mRaisedCount] = view;
+        mOriginalElevations[mRaisedCount] = ViewCompat.getElevation(view);
+        mRaisedCount++;
+        ViewCompat.setElevation(view, 1f + max);
+    }
+
+    /**
+     * 恢复view原来的elevation.
+     *
+     * @return false view没有被提升过.
+     */
+    boolean restore(View view) {
+        final int index = indexOf(view);
+        if (index < 0) {
+            return false;
+        }
+        ViewCompat.setElevation(view, mOriginalElevations[index]);
+        mRaisedCount--;
+        mRaisedViews[index] = mRaisedViews[mRaisedCount];
+        mOriginalElevations[index] = mOriginalElevations[mRaisedCount];
+        mRaisedViews[mRaisedCount] = null;
+        return true;
+    }
+
+    /**
+     * @return attach的Item原来的elevation中的最大值.
+     */
+    float getMaxElevation() {
+        if (mDirty) {
+            mMax = 0;
+            mMaxCount = 0;
+            if (mRecyclerView != null) {
+                for (int i = mRecyclerView.getChildCount() - 1; i >= 0; i--) {
+                    include(mRecyclerView.getChildAt(i));
+                }
+            }
+            mDirty = false;
+        }
+        return mMax;
+    }
+
+    private void include(View child) {
+        final float elevation = originalElevationOf(child);
+        if (elevation > mMax) {
+            mMax = elevation;
+            mMaxCount = 1;
+        } else if (elevation == mMax) {
+            mMaxCount++;
+        }
+    }
+
+    private float originalElevationOf(View view) {
+        final int index = indexOf(view);
+        return index >= 0 ? mOriginalElevations[index] : ViewCompat.getElevation(view);
+    }
+
+    private int indexOf(View view) {
+        for (int i = 0; i < mRaisedCount; i++) {
+            if (mRaisedViews[i] == view) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,196 @@
+package cn.we.swipe.helper;
+
+import android.content.Context;
+import android.view.Display;
+import android.view.View;
+import android.view.WindowManager;
+
+/**
+ * Created to : 统计每一次手势的耗时,数据存放在预先分配好的环形缓冲区中,手势结束之后再统一回调给
+ * {@link WeSwipeMetricsListener}.
+ * <p>
+ * 帧数由{@link SwipeAnimationEngine}的帧回调统计,不需要单独注册Choreographer回调.
+ * 所有的时间都来自{@link #nowNanos()},和Choreographer的帧时间是同一个时钟.
+ *
+ * @author WANG
+ */
+class GestureMetricsRecorder implements SwipeAnimationEngine.FrameListener {
+
+    private static final int CAPACITY = 32;
+
+    private static final long DEFAULT_FRAME_INTERVAL_NANOS = 1000000000L / 60;
+
+    private final WeSwipeMetricsListener mListener;
+
+    /**
+     * 环形缓冲区.
+     */
+    private final long[] mDownToFirstTranslation = new long[CAPACITY];
+
+    private final long[] mSettle = new long[CAPACITY];
+
+    private final int[] mFrames = new int[CAPACITY];
+
+    private final int[] mLateFrames = new int[CAPACITY];
+
+    private int mHead;
+
+    private int mCount;
+
+    /**
+     * 当前手势.
+     */
+    private long mDownNanos;
+
+    private long mFirstTranslationNanos;
+
+    private long mUpNanos;
+
+    private long mSettleStartNanos;
+
+    private int mRunningSettles;
+
+    private boolean mHasSettled;
+
+    private int mFrameCount;
+
+    private int mLateFrameCount;
+
+    private long mLastFrameNanos;
+
+    private long mFrameIntervalNanos = DEFAULT_FRAME_INTERVAL_NANOS;
+
+    private View mHost;
+
+    private boolean mDeliverPosted;
+
+    private final Runnable mDeliverRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mDeliverPosted = false;
+            deliver();
+        }
+    };
+
+    GestureMetricsRecorder(WeSwipeMetricsListener listener) {
+        mListener = listener;
+    }
+
+    void attach(View host) {
+        mHost = host;
+        if (host == null) {
+            return;
+        }
+        WindowManager wm = (WindowManager) host.getContext().getSystemService(Context.WINDOW_SERVICE);
+        Display display = wm == null ? null : wm.getDefaultDisplay();
+        if (display != null && display.getRefreshRate() > 1f) {
+            mFrameIntervalNanos = (long) (1000000000L / display.getRefreshRate());
+        }
+    }
+
+    /**
+     * 和{@link System#nanoTime()}一致,测试中可以替换.
+     */
+    long nowNanos() {
+        return System.nanoTime();
+    }
+
+    void onDown() {
+        if (mRunningSettles > 0) {
+            // 上一次的动画还没有结束又开始了新的手势,直接记录上一次的数据.
+            mRunningSettles = 0;
+            record();
+        }
+        reset();
+        mDownNanos = nowNanos();
+    }
+
+    void onTranslated() {
+        if (mDownNanos != 0 && mFirstTranslationNanos == 0) {
+            mFirstTranslationNanos = nowNanos();
+        }
+    }
+
+    void onUp() {
+        if (mDownNanos != 0 && mUpNanos == 0) {
+            mUpNanos = nowNanos();
+        }
+    }
+
+    void onSettleStart() {
+        if (mDownNanos == 0) {
+            return;
+        }
+        if (mRunningSettles++ == 0 && !mHasSettled) {
+            mSettleStartNanos = nowNanos();
+            mLastFrameNanos = 0;
+        }
+        mHasSettled = true;
+    }
+
+    void onSettleEnd() {
+        if (mRunningSettles == 0) {
+            return;
+        }
+        if (--mRunningSettles == 0) {
+            record();
+            reset();
+        }
+    }
+
+    private void reset() {
+        mDownNanos = 0;
+        mFirstTranslationNanos = 0;
+        mUpNanos = 0;
+        mSettleStartNanos = 0;
+        mHasSettled = false;
+        mFrameCount = 0;
+        mLateFrameCount = 0;
+        mLastFrameNanos = 0;
+    }
+
+    private void record() {
+        if (mDownNanos == 0 || !mHasSettled) {
+            return;
+        }
+        final long now = nowNanos();
+        final long settleFrom = mUpNanos != 0 ? mUpNanos : mSettleStartNanos;
+        final int index = (mHead + mCount) % CAPACITY;
+        mDownToFirstTranslation[index] = mFirstTranslationNanos == 0 ? -1 : mFirstTranslationNanos - mDownNanos;
+        mSettle[index] = now - settleFrom;
+        mFrames[index] = mFrameCount;
+        mLateFrames[index] = mLateFrameCount;
+        if (mCount < CAPACITY) {
+            mCount++;
+        } else {
+            // 覆盖最老的记录.
+            mHead = (mHead + 1) % CAPACITY;
+        }
+        if (!mDeliverPosted && mHost != null) {
+            mDeliverPosted = true;
+            mHost.post(mDeliverRunnable);
+        }
+    }
+
+    void deliver() {
+        while (mCount > 0) {
+            final int index = mHead;
+            mHead = (mHead + 1) % CAPACITY;
+            mCount--;
+            mListener.onGestureMetrics(mDownToFirstTranslation[index], mSettle[index],
+                    mFrames[index], mLateFrames[index]);
+        }
+    }
+
+    @Override
+    public void onFrame(long frameTimeNanos) {
+        if (mRunningSettles == 0) {
+            return;
+        }
+        if (mLastFrameNanos != 0 && frameTimeNanos - mLastFrameNanos > mFrameIntervalNanos * 3 / 2) {
+            mLateFrameCount++;
+        }
+        mLastFrameNanos = frameTimeNanos;
+        mFrameCount++;
+    }
+}
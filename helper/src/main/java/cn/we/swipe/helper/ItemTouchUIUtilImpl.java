@@ -33,13 +33,26 @@ class ItemTouchUIUtilImpl {
         @Override
         public void onDraw(Canvas c, RecyclerView recyclerView, View view,
                            float dX, float dY, int actionState, boolean isCurrentlyActive) {
+            onDraw(c, recyclerView, view, dX, dY, actionState, isCurrentlyActive, null);
+        }
+
+        /**
+         * @param tracker WeSwipeHelper维护的{@link ElevationTracker},为null的时候遍历所有的Item,
+         *                原来的elevation保存在tag中.
+         */
+        void onDraw(Canvas c, RecyclerView recyclerView, View view, float dX, float dY,
+                    int actionState, boolean isCurrentlyActive, ElevationTracker tracker) {
             if (isCurrentlyActive) {
-                Object originalElevation = view.getTag(R.id.item_touch_helper_previous_elevation);
-                if (originalElevation == null) {
-                    originalElevation = ViewCompat.getElevation(view);
-                    float newElevation = 1f + findMaxElevation(recyclerView, view);
-                    ViewCompat.setElevation(view, newElevation);
-                    view.setTag(R.id.item_touch_helper_previous_elevation, originalElevation);
+                if (tracker != null) {
+                    tracker.raise(view);
+                } else {
+                    Object originalElevation = view.getTag(R.id.item_touch_helper_previous_elevation);
+                    if (originalElevation == null) {
+                        originalElevation = ViewCompat.getElevation(view);
+                        float newElevation = 1f + findMaxElevation(recyclerView, view);
+                        ViewCompat.setElevation(view, newElevation);
+                        view.setTag(R.id.item_touch_helper_previous_elevation, originalElevation);
+                    }
                 }
             }
             super.onDraw(c, recyclerView, view, dX, dY, actionState, isCurrentlyActive);
@@ -63,11 +76,17 @@ class ItemTouchUIUtilImpl {
 
         @Override
         public void clearView(View view) {
-            final Object tag = view.getTag(R.id.item_touch_helper_previous_elevation);
-            if (tag != null && tag instanceof Float) {
-                ViewCompat.setElevation(view, (Float) tag);
+            clearView(view, null);
+        }
+
+        void clearView(View view, ElevationTracker tracker) {
+            if (tracker == null || !tracker.restore(view)) {
+                final Object tag = view.getTag(R.id.item_touch_helper_previous_elevation);
+                if (tag != null && tag instanceof Float) {
+                    ViewCompat.setElevation(view, (Float) tag);
+                }
+                view.setTag(R.id.item_touch_helper_previous_elevation, null);
             }
-            view.setTag(R.id.item_touch_helper_previous_elevation, null);
             super.clearView(view);
         }
     }
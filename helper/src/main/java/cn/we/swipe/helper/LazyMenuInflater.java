@@ -0,0 +1,135 @@
+package cn.we.swipe.helper;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseArray;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+
+/**
+ * Created to : 给{@link SwipeMenuProvider}创建菜单.
+ * <p>
+ * 即将开始侧滑的时候才创建菜单并添加;打开预创建的话,按下的时候在主线程空闲的时候给手指附近的Item
+ * 提前创建几个菜单放在池中,开始侧滑的时候直接使用,不在手势过程中inflate.
+ *
+ * @author WANG
+ */
+final class LazyMenuInflater implements MessageQueue.IdleHandler {
+
+    /**
+     * 每种布局最多提前创建的菜单数量.
+     */
+    static final int MAX_POOLED = 2;
+
+    private final SparseArray<ArrayList<View>> mPool = new SparseArray<>();
+
+    /**
+     * 等待空闲的时候创建菜单的Item.
+     */
+    private final ArrayList<SwipeMenuProvider> mPending = new ArrayList<>();
+
+    private LayoutInflater mInflater;
+
+    private boolean mIdleScheduled;
+
+    void attach(RecyclerView recyclerView) {
+        if (mIdleScheduled) {
+            Looper.myQueue().removeIdleHandler(this);
+            mIdleScheduled = false;
+        }
+        mPending.clear();
+        mPool.clear();
+        mInflater = recyclerView == null ? null : LayoutInflater.from(recyclerView.getContext());
+    }
+
+    /**
+     * 还没有菜单的话添加菜单,优先使用提前创建的.
+     *
+     * @param under true 添加在最下面.
+     * @return true 这次添加了菜单.
+     */
+    boolean ensureMenu(SwipeMenuProvider provider, boolean under) {
+        if (mInflater == null || provider.getMenu() != null) {
+            return false;
+        }
+        final ViewGroup parent = provider.getMenuParent();
+        if (parent == null) {
+            return false;
+        }
+        final int layoutId = provider.getMenuLayoutId();
+        final ArrayList<View> pooled = mPool.get(layoutId);
+        final View menu = pooled != null && !pooled.isEmpty()
+                ? pooled.remove(pooled.size() - 1) : mInflater.inflate(layoutId, parent, false);
+        if (under) {
+            parent.addView(menu, 0);
+        } else {
+            parent.addView(menu);
+        }
+        measure(parent, menu);
+        provider.onMenuAttached(menu);
+        return true;
+    }
+
+    /**
+     * 在主线程空闲的时候给provider提前创建一个菜单.
+     */
+    void prefetch(SwipeMenuProvider provider) {
+        if (mInflater == null || provider.getMenu() != null || mPending.contains(provider)) {
+            return;
+        }
+        if (mPending.size() == MAX_POOLED) {
+            // 只保留离手指最近的几个.
+            mPending.remove(0);
+        }
+        mPending.add(provider);
+        if (!mIdleScheduled) {
+            Looper.myQueue().addIdleHandler(this);
+            mIdleScheduled = true;
+        }
+    }
+
+    int getPooledCount(int layoutId) {
+        final ArrayList<View> pooled = mPool.get(layoutId);
+        return pooled == null ? 0 : pooled.size();
+    }
+
+    @Override
+    public boolean queueIdle() {
+        // 每次空闲只创建一个,不长时间占用主线程.
+        while (!mPending.isEmpty()) {
+            final SwipeMenuProvider provider = mPending.remove(mPending.size() - 1);
+            final ViewGroup parent = provider.getMenuParent();
+            final int layoutId = provider.getMenuLayoutId();
+            if (provider.getMenu() != null || parent == null || getPooledCount(layoutId) >= MAX_POOLED) {
+                continue;
+            }
+            ArrayList<View> pooled = mPool.get(layoutId);
+            if (pooled == null) {
+                pooled = new ArrayList<>(MAX_POOLED);
+                mPool.put(layoutId, pooled);
+            }
+            pooled.add(mInflater.inflate(layoutId, parent, false));
+            break;
+        }
+        mIdleScheduled = !mPending.isEmpty();
+        return mIdleScheduled;
+    }
+
+    /**
+     * 刚添加的菜单还没有layout,先测量一次,开始侧滑的时候可以使用测量的宽度.
+     */
+    private static void measure(ViewGroup parent, View menu) {
+        final ViewGroup.LayoutParams lp = menu.getLayoutParams();
+        final int widthSpec = ViewGroup.getChildMeasureSpec(
+                View.MeasureSpec.makeMeasureSpec(parent.getWidth(), View.MeasureSpec.EXACTLY),
+                parent.getPaddingLeft() + parent.getPaddingRight(), lp.width);
+        final int heightSpec = ViewGroup.getChildMeasureSpec(
+                View.MeasureSpec.makeMeasureSpec(parent.getHeight(), View.MeasureSpec.EXACTLY),
+                parent.getPaddingTop() + parent.getPaddingBottom(), lp.height);
+        menu.measure(widthSpec, heightSpec);
+    }
+}
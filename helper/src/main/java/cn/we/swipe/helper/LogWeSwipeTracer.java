@@ -0,0 +1,60 @@
+package cn.we.swipe.helper;
+
+import android.util.Log;
+
+/**
+ * Created to : 通过Logcat输出WeSwipeHelper的工作,只有在{@link Log#isLoggable(String, int)}为true的时候才去拼接字符串.
+ * <pre>
+ *     adb shell setprop log.tag.WeSwipe DEBUG
+ * </pre>
+ *
+ * @author WANG
+ */
+public class LogWeSwipeTracer implements WeSwipeTracer {
+
+    private static final int MAX_DEPTH = 8;
+
+    private final String mTag;
+
+    private final String[] mSections = new String[MAX_DEPTH];
+
+    private final long[] mStartTimes = new long[MAX_DEPTH];
+
+    private int mDepth;
+
+    public LogWeSwipeTracer() {
+        this("WeSwipe");
+    }
+
+    public LogWeSwipeTracer(String tag) {
+        mTag = tag;
+    }
+
+    @Override
+    public void beginSection(String sectionName) {
+        if (mDepth < MAX_DEPTH) {
+            mSections[mDepth] = sectionName;
+            mStartTimes[mDepth] = System.nanoTime();
+        }
+        mDepth++;
+    }
+
+    @Override
+    public void endSection() {
+        if (mDepth == 0) {
+            return;
+        }
+        mDepth--;
+        if (mDepth < MAX_DEPTH && Log.isLoggable(mTag, Log.DEBUG)) {
+            final long costMicros = (System.nanoTime() - mStartTimes[mDepth]) / 1000;
+            Log.d(mTag, mSections[mDepth] + " " + costMicros + "us");
+        }
+    }
+
+    @Override
+    public void event(String name, int value) {
+        if (Log.isLoggable(mTag, Log.DEBUG)) {
+            Log.d(mTag, name + " " + value);
+        }
+    }
+}
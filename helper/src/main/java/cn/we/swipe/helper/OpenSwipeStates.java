@@ -0,0 +1,216 @@
+package cn.we.swipe.helper;
+
+/**
+ * Created to : 多个打开的Item的状态,key是Item的stable id,没有stable id的时候是adapter position,
+ * value是打开之后的平移距离.
+ * <p>
+ * 开放寻址(线性探测)的long -> float散列表,查找,插入,删除都是O(1)并且不会装箱,
+ * 可以在拦截事件的路径上直接使用.
+ *
+ * @author WANG
+ */
+final class OpenSwipeStates {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private long[] mKeys;
+
+    private float[] mOffsets;
+
+    private boolean[] mUsed;
+
+    private int mSize;
+
+    private int mMask;
+
+    /**
+     * {@link #offsetKeys(long, long)}使用,重复利用.
+     */
+    private long[] mMovingKeys;
+
+    private float[] mMovingOffsets;
+
+    OpenSwipeStates() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        mKeys = new long[capacity];
+        mOffsets = new float[capacity];
+        mUsed = new boolean[capacity];
+        mMask = capacity - 1;
+        mSize = 0;
+    }
+
+    int size() {
+        return mSize;
+    }
+
+    boolean isEmpty() {
+        return mSize == 0;
+    }
+
+    boolean contains(long key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * @return key对应的平移距离,没有打开的话返回fallback.
+     */
+    float getOffset(long key, float fallback) {
+        final int index = indexOf(key);
+        return index < 0 ? fallback : mOffsets[index];
+    }
+
+    void put(long key, float offset) {
+        // 装载因子不超过0.5,探测的长度很短.
+        if ((mSize + 1) * 2 > mUsed.length) {
+            grow();
+        }
+        int index = hash(key) & mMask;
+        while (mUsed[index]) {
+            if (mKeys[index] == key) {
+                mOffsets[index] = offset;
+                return;
+            }
+            index = (index + 1) & mMask;
+        }
+        mUsed[index] = true;
+        mKeys[index] = key;
+        mOffsets[index] = offset;
+        mSize++;
+    }
+
+    /**
+     * @return key之前是否是打开的状态.
+     */
+    boolean remove(long key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return false;
+        }
+        mUsed[index] = false;
+        mSize--;
+        // 把后面同一个探测链上的元素往前移,保证查找不会在空位上提前结束.
+        int next = (index + 1) & mMask;
+        while (mUsed[next]) {
+            final int ideal = hash(mKeys[next]) & mMask;
+            if (((next - ideal) & mMask) >= ((next - index) & mMask)) {
+                mKeys[index] = mKeys[next];
+                mOffsets[index] = mOffsets[next];
+                mUsed[index] = true;
+                mUsed[next] = false;
+                index = next;
+            }
+            next = (next + 1) & mMask;
+        }
+        return true;
+    }
+
+    /**
+     * 删除key在[start, end)中的所有状态,没有stable id的时候用来清除一段adapter position.
+     *
+     * @return 删除的数量.
+     */
+    int removeRange(long start, long end) {
+        int removed = 0;
+        int slot = 0;
+        while (slot < mUsed.length) {
+            if (mUsed[slot] && mKeys[slot] >= start && mKeys[slot] < end) {
+                // 删除会把后面的元素移到当前位置,重新检查这个位置.
+                remove(mKeys[slot]);
+                removed++;
+            } else {
+                slot++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * key不小于from的状态都加上delta,没有stable id的时候插入或者删除之后用来移动adapter position.
+     * 调用之前需要先删除会和其他key重叠的部分.
+     */
+    void offsetKeys(long from, long delta) {
+        if (mSize == 0 || delta == 0) {
+            return;
+        }
+        if (mMovingKeys == null || mMovingKeys.length < mSize) {
+            mMovingKeys = new long[mUsed.length];
+            mMovingOffsets = new float[mUsed.length];
+        }
+        int moving = 0;
+        int slot = 0;
+        while (slot < mUsed.length) {
+            if (mUsed[slot] && mKeys[slot] >= from) {
+                mMovingKeys[moving] = mKeys[slot];
+                mMovingOffsets[moving] = mOffsets[slot];
+                moving++;
+                remove(mKeys[slot]);
+            } else {
+                slot++;
+            }
+        }
+        for (int i = 0; i < moving; i++) {
+            put(mMovingKeys[i] + delta, mMovingOffsets[i]);
+        }
+    }
+
+    void clear() {
+        if (mSize == 0) {
+            return;
+        }
+        for (int i = 0; i < mUsed.length; i++) {
+            mUsed[i] = false;
+        }
+        mSize = 0;
+    }
+
+    /**
+     * 遍历用,slot的范围是[0, capacity()).
+     */
+    int capacity() {
+        return mUsed.length;
+    }
+
+    boolean isUsed(int slot) {
+        return mUsed[slot];
+    }
+
+    long keyAt(int slot) {
+        return mKeys[slot];
+    }
+
+    float offsetAt(int slot) {
+        return mOffsets[slot];
+    }
+
+    private int indexOf(long key) {
+        int index = hash(key) & mMask;
+        while (mUsed[index]) {
+            if (mKeys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mMask;
+        }
+        return -1;
+    }
+
+    private void grow() {
+        final long[] keys = mKeys;
+        final float[] offsets = mOffsets;
+        final boolean[] used = mUsed;
+        allocate(used.length * 2);
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                put(keys[i], offsets[i]);
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        int h = (int) (key ^ (key >>> 32));
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
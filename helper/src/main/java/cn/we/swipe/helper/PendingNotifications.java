@@ -0,0 +1,192 @@
+package cn.we.swipe.helper;
+
+import android.support.v7.widget.RecyclerView;
+
+/**
+ * Created to : 等待打开的Item关闭期间收到的Adapter刷新,关闭之后一起分发.
+ * <p>
+ * 每条记录都保存在预先分配的基本类型数组中,添加的时候不会创建对象.
+ * 连续的同类型记录,如果范围相邻或者重叠会合并成一条;notifyDataSetChanged会覆盖之前所有的记录.
+ *
+ * @author WANG
+ */
+final class PendingNotifications {
+
+    static final int TYPE_CHANGED = 1;
+
+    static final int TYPE_INSERTED = 2;
+
+    static final int TYPE_REMOVED = 3;
+
+    static final int TYPE_MOVED = 4;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] mTypes = new int[DEFAULT_CAPACITY];
+
+    private int[] mStarts = new int[DEFAULT_CAPACITY];
+
+    /**
+     * 移动的时候是目标位置,其他的时候是数量.
+     */
+    private int[] mCounts = new int[DEFAULT_CAPACITY];
+
+    private Object[] mPayloads = new Object[DEFAULT_CAPACITY];
+
+    private int mSize;
+
+    private boolean mDataSetChanged;
+
+    boolean isEmpty() {
+        return mSize == 0 && !mDataSetChanged;
+    }
+
+    void addDataSetChanged() {
+        clear();
+        mDataSetChanged = true;
+    }
+
+    void addChanged(int positionStart, int itemCount, Object payload) {
+        if (mDataSetChanged || itemCount <= 0) {
+            return;
+        }
+        final int last = mSize - 1;
+        if (last >= 0 && mTypes[last] == TYPE_CHANGED && mPayloads[last] == payload) {
+            final int start = mStarts[last];
+            final int end = start + mCounts[last];
+            // 相邻或者重叠,合并成一个范围.
+            if (positionStart <= end && positionStart + itemCount >= start) {
+                final int mergedStart = Math.min(start, positionStart);
+                mStarts[last] = mergedStart;
+                mCounts[last] = Math.max(end, positionStart + itemCount) - mergedStart;
+                return;
+            }
+        }
+        append(TYPE_CHANGED, positionStart, itemCount, payload);
+    }
+
+    void addInserted(int positionStart, int itemCount) {
+        if (mDataSetChanged || itemCount <= 0) {
+            return;
+        }
+        final int last = mSize - 1;
+        if (last >= 0 && mTypes[last] == TYPE_INSERTED) {
+            final int start = mStarts[last];
+            // 插入到了上一次插入的范围中间或者两端,仍然是连续的一段.
+            if (positionStart >= start && positionStart <= start + mCounts[last]) {
+                mCounts[last] += itemCount;
+                return;
+            }
+        }
+        append(TYPE_INSERTED, positionStart, itemCount, null);
+    }
+
+    void addRemoved(int positionStart, int itemCount) {
+        if (mDataSetChanged || itemCount <= 0) {
+            return;
+        }
+        final int last = mSize - 1;
+        if (last >= 0 && mTypes[last] == TYPE_REMOVED) {
+            final int start = mStarts[last];
+            // 上一次删除之后的位置,包含或者紧挨着上一次删除的起点,合起来是删除之前连续的一段.
+            if (positionStart <= start && positionStart + itemCount >= start) {
+                mStarts[last] = positionStart;
+                mCounts[last] += itemCount;
+                return;
+            }
+        }
+        append(TYPE_REMOVED, positionStart, itemCount, null);
+    }
+
+    void addMoved(int fromPosition, int toPosition) {
+        if (mDataSetChanged) {
+            return;
+        }
+        append(TYPE_MOVED, fromPosition, toPosition, null);
+    }
+
+    /**
+     * 按照添加的顺序分发所有的记录,然后清空.
+     */
+    void dispatchTo(RecyclerView.Adapter adapter) {
+        if (mDataSetChanged) {
+            clear();
+            adapter.notifyDataSetChanged();
+            return;
+        }
+        // 先复制数量,分发的过程中可能会添加新的记录.
+        final int size = mSize;
+        for (int i = 0; i < size; i++) {
+            final int start = mStarts[i];
+            final int count = mCounts[i];
+            switch (mTypes[i]) {
+                case TYPE_CHANGED:
+                    adapter.notifyItemRangeChanged(start, count, mPayloads[i]);
+                    break;
+                case TYPE_INSERTED:
+                    adapter.notifyItemRangeInserted(start, count);
+                    break;
+                case TYPE_REMOVED:
+                    adapter.notifyItemRangeRemoved(start, count);
+                    break;
+                case TYPE_MOVED:
+                    adapter.notifyItemMoved(start, count);
+                    break;
+                default:
+                    break;
+            }
+        }
+        clear();
+    }
+
+    void clear() {
+        for (int i = 0; i < mSize; i++) {
+            mPayloads[i] = null;
+        }
+        mSize = 0;
+        mDataSetChanged = false;
+    }
+
+    int size() {
+        return mSize;
+    }
+
+    int typeAt(int index) {
+        return mTypes[index];
+    }
+
+    int startAt(int index) {
+        return mStarts[index];
+    }
+
+    int countAt(int index) {
+        return mCounts[index];
+    }
+
+    private void append(int type, int start, int count, Object payload) {
+        if (mSize == mTypes.length) {
+            grow();
+        }
+        mTypes[mSize] = type;
+        mStarts[mSize] = start;
+        mCounts[mSize] = count;
+        mPayloads[mSize] = payload;
+        mSize++;
+    }
+
+    private void grow() {
+        final int capacity = mTypes.length * 2;
+        int[] types = new int[capacity];
+        int[] starts = new int[capacity];
+        int[] counts = new int[capacity];
+        Object[] payloads = new Object[capacity];
+        System.arraycopy(mTypes, 0, types, 0, mSize);
+        System.arraycopy(mStarts, 0, starts, 0, mSize);
+        System.arraycopy(mCounts, 0, counts, 0, mSize);
+        System.arraycopy(mPayloads, 0, payloads, 0, mSize);
+        mTypes = types;
+        mStarts = starts;
+        mCounts = counts;
+        mPayloads = payloads;
+    }
+}
@@ -0,0 +1,368 @@
+package cn.we.swipe.helper;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.support.v4.view.ViewCompat;
+import android.view.Choreographer;
+import android.view.View;
+import android.view.animation.AnimationUtils;
+
+/**
+ * Created to : WeSwipeHelper中所有侧滑和恢复动画共用的动画引擎.
+ * <p>
+ * 每一帧只有一个回调(API 16以上是{@link Choreographer.FrameCallback},以下是postOnAnimation),
+ * 用同一个帧时间推进所有正在执行的动画.动画的开始时间和时长保存在平行数组中,开始动画不会创建对象.
+ * 插值和ValueAnimator默认的AccelerateDecelerateInterpolator一样.
+ * <p>
+ * 也可以用{@link #startSpring(Target, float, float)}开始一个临界阻尼的弹簧动画,没有固定的时长,
+ * 距离短的时候几帧就结束;正在执行的时候再次调用会在原来的位置继续,不会新增动画.
+ *
+ * @author WANG
+ */
+final class SwipeAnimationEngine {
+
+    /**
+     * 由引擎驱动的动画.
+     */
+    interface Target {
+
+        /**
+         * @param fraction 插值之后的进度,[0, 1].弹簧动画初速度背离终点的时候可能短暂小于0.
+         */
+        void onAnimationUpdate(float fraction);
+
+        /**
+         * 动画结束或者被取消,每次{@link #start(Target, long)}只回调一次.
+         *
+         * @param canceled true 被{@link #cancel(Target)}取消.
+         */
+        void onAnimationEnd(boolean canceled);
+    }
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    /**
+     * 弹簧的固有频率(rad/s),和SpringForce.STIFFNESS_MEDIUM相同.
+     */
+    private static final float SPRING_FREQUENCY = 38.7f;
+
+    /**
+     * mDurations中表示弹簧动画.
+     */
+    private static final long SPRING = -1;
+
+    private Target[] mTargets = new Target[DEFAULT_CAPACITY];
+
+    /**
+     * 第一帧的时间,还没有开始的时候是-1.
+     */
+    private long[] mStartTimes = new long[DEFAULT_CAPACITY];
+
+    private long[] mDurations = new long[DEFAULT_CAPACITY];
+
+    /**
+     * 弹簧动画的初速度(进度/秒)和结束的阈值(进度).
+     */
+    private float[] mVelocities = new float[DEFAULT_CAPACITY];
+
+    private float[] mThresholds = new float[DEFAULT_CAPACITY];
+
+    private int mCount;
+
+    /**
+     * 一帧中结束的动画,先从数组中移除再回调,回调中可以开始新的动画.
+     */
+    private Target[] mEnded = new Target[DEFAULT_CAPACITY];
+
+    private boolean mFrameScheduled;
+
+    private View mHost;
+
+    private FrameListener mFrameListener;
+
+    private final Frame mFrame;
+
+    SwipeAnimationEngine() {
+        if (Build.VERSION.SDK_INT >= 16) {
+            mFrame = new ChoreographerFrame();
+        } else {
+            mFrame = new PostFrame();
+        }
+    }
+
+    /**
+     * 每一帧回调一次,用来统计帧数.
+     */
+    interface FrameListener {
+
+        void onFrame(long frameTimeNanos);
+    }
+
+    void setFrameListener(FrameListener listener) {
+        mFrameListener = listener;
+    }
+
+    /**
+     * API 16以下需要用View来postOnAnimation.
+     */
+    void attach(View host) {
+        mHost = host;
+    }
+
+    /**
+     * 开始一个动画,在下一帧开始计时.
+     */
+    void start(Target target, long duration) {
+        if (mCount == mTargets.length) {
+            grow();
+        }
+        mTargets[mCount] = target;
+        mStartTimes[mCount] = -1;
+        mDurations[mCount] = duration;
+        mCount++;
+        scheduleFrame();
+    }
+
+    /**
+     * 开始一个从进度0到1的临界阻尼弹簧动画.target正在执行的时候在原来的位置重新开始,不会新增动画.
+     *
+     * @param velocity  初速度,进度/秒,朝向终点为正.
+     * @param threshold 距离终点小于这个进度并且几乎静止的时候结束.
+     */
+    void startSpring(Target target, float velocity, float threshold) {
+        int index = indexOf(target);
+        if (index < 0) {
+            if (mCount == mTargets.length) {
+                grow();
+            }
+            index = mCount++;
+            mTargets[index] = target;
+        }
+        mStartTimes[index] = -1;
+        mDurations[index] = SPRING;
+        mVelocities[index] = velocity;
+        mThresholds[index] = threshold;
+        scheduleFrame();
+    }
+
+    /**
+     * @return 弹簧动画当前的速度,进度/秒;不是弹簧动画或者没有在执行的时候返回0.
+     */
+    float getVelocity(Target target) {
+        final int index = indexOf(target);
+        if (index < 0 || mDurations[index] != SPRING) {
+            return 0f;
+        }
+        if (mStartTimes[index] < 0) {
+            return mVelocities[index];
+        }
+        final float t = (AnimationUtils.currentAnimationTimeMillis() - mStartTimes[index]) / 1000f;
+        return springVelocity(mVelocities[index], t);
+    }
+
+    boolean isRunning(Target target) {
+        return indexOf(target) >= 0;
+    }
+
+    boolean isRunning() {
+        return mCount > 0;
+    }
+
+    /**
+     * 停在当前的位置,回调{@link Target#onAnimationEnd(boolean)}.
+     */
+    void cancel(Target target) {
+        final int index = indexOf(target);
+        if (index >= 0) {
+            removeAt(index);
+            target.onAnimationEnd(true);
+        }
+    }
+
+    /**
+     * 直接跳到结束的位置.
+     */
+    void end(Target target) {
+        final int index = indexOf(target);
+        if (index >= 0) {
+            removeAt(index);
+            target.onAnimationUpdate(1f);
+            target.onAnimationEnd(false);
+        }
+    }
+
+    private void doFrame(long frameTimeNanos) {
+        mFrameScheduled = false;
+        if (mFrameListener != null) {
+            mFrameListener.onFrame(frameTimeNanos);
+        }
+        final long now = frameTimeNanos / 1000000L;
+        int ended = 0;
+        int write = 0;
+        final int count = mCount;
+        for (int i = 0; i < count; i++) {
+            final Target target = mTargets[i];
+            if (mStartTimes[i] < 0) {
+                mStartTimes[i] = now;
+            }
+            final long duration = mDurations[i];
+            final boolean finished;
+            if (duration == SPRING) {
+                final float t = (now - mStartTimes[i]) / 1000f;
+                final float offset = springOffset(mVelocities[i], t);
+                final float threshold = mThresholds[i];
+                finished = Math.abs(offset) < threshold
+                        && Math.abs(springVelocity(mVelocities[i], t)) < threshold * 60;
+                // 临界阻尼最多越过终点一次,直接停在终点.
+                target.onAnimationUpdate(finished ? 1f : Math.min(1f, 1f + offset));
+            } else {
+                final float fraction = duration <= 0 ? 1f : Math.min(1f, (now - mStartTimes[i]) / (float) duration);
+                finished = fraction >= 1f;
+                target.onAnimationUpdate(interpolate(fraction));
+            }
+            if (finished) {
+                if (ended == mEnded.length) {
+                    Target[] grown = new Target[ended * 2];
+                    System.arraycopy(mEnded, 0, grown, 0, ended);
+                    mEnded = grown;
+                }
+                mEnded[ended++] = target;
+            } else {
+                copy(i, write);
+                write++;
+            }
+        }
+        // 回调过程中开始的动画接在后面.
+        for (int i = count; i < mCount; i++, write++) {
+            copy(i, write);
+        }
+        for (int i = write; i < mCount; i++) {
+            mTargets[i] = null;
+        }
+        mCount = write;
+        for (int i = 0; i < ended; i++) {
+            final Target target = mEnded[i];
+            mEnded[i] = null;
+            target.onAnimationEnd(false);
+        }
+        if (mCount > 0) {
+            scheduleFrame();
+        }
+    }
+
+    private void copy(int from, int to) {
+        if (from != to) {
+            mTargets[to] = mTargets[from];
+            mStartTimes[to] = mStartTimes[from];
+            mDurations[to] = mDurations[from];
+            mVelocities[to] = mVelocities[from];
+            mThresholds[to] = mThresholds[from];
+        }
+    }
+
+    private void scheduleFrame() {
+        if (!mFrameScheduled) {
+            mFrameScheduled = true;
+            mFrame.post();
+        }
+    }
+
+    private int indexOf(Target target) {
+        for (int i = 0; i < mCount; i++) {
+            if (mTargets[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removeAt(int index) {
+        final int moved = mCount - index - 1;
+        if (moved > 0) {
+            System.arraycopy(mTargets, index + 1, mTargets, index, moved);
+            System.arraycopy(mStartTimes, index + 1, mStartTimes, index, moved);
+            System.arraycopy(mDurations, index + 1, mDurations, index, moved);
+            System.arraycopy(mVelocities, index + 1, mVelocities, index, moved);
+            System.arraycopy(mThresholds, index + 1, mThresholds, index, moved);
+        }
+        mCount--;
+        mTargets[mCount] = null;
+    }
+
+    private void grow() {
+        final int capacity = mTargets.length * 2;
+        Target[] targets = new Target[capacity];
+        long[] startTimes = new long[capacity];
+        long[] durations = new long[capacity];
+        float[] velocities = new float[capacity];
+        float[] thresholds = new float[capacity];
+        System.arraycopy(mTargets, 0, targets, 0, mCount);
+        System.arraycopy(mStartTimes, 0, startTimes, 0, mCount);
+        System.arraycopy(mDurations, 0, durations, 0, mCount);
+        System.arraycopy(mVelocities, 0, velocities, 0, mCount);
+        System.arraycopy(mThresholds, 0, thresholds, 0, mCount);
+        mTargets = targets;
+        mStartTimes = startTimes;
+        mDurations = durations;
+        mVelocities = velocities;
+        mThresholds = thresholds;
+    }
+
+    /**
+     * 临界阻尼弹簧距离终点的偏移:(A + Bt)e^(-ωt),A = -1,B = v0 - ω.
+     */
+    static float springOffset(float velocity, float t) {
+        return (float) ((-1f + (velocity - SPRING_FREQUENCY) * t) * Math.exp(-SPRING_FREQUENCY * t));
+    }
+
+    /**
+     * {@link #springOffset(float, float)}的导数.
+     */
+    static float springVelocity(float velocity, float t) {
+        final float b = velocity - SPRING_FREQUENCY;
+        return (float) ((b - SPRING_FREQUENCY * (-1f + b * t)) * Math.exp(-SPRING_FREQUENCY * t));
+    }
+
+    /**
+     * 和AccelerateDecelerateInterpolator相同.
+     */
+    private static float interpolate(float input) {
+        return (float) (Math.cos((input + 1) * Math.PI) / 2.0f) + 0.5f;
+    }
+
+    private interface Frame {
+
+        void post();
+    }
+
+    @TargetApi(16)
+    private class ChoreographerFrame implements Frame, Choreographer.FrameCallback {
+
+        @Override
+        public void post() {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            SwipeAnimationEngine.this.doFrame(frameTimeNanos);
+        }
+    }
+
+    private class PostFrame implements Frame, Runnable {
+
+        @Override
+        public void post() {
+            if (mHost != null) {
+                ViewCompat.postOnAnimation(mHost, this);
+            } else {
+                mFrameScheduled = false;
+            }
+        }
+
+        @Override
+        public void run() {
+            doFrame(AnimationUtils.currentAnimationTimeMillis() * 1000000L);
+        }
+    }
+}
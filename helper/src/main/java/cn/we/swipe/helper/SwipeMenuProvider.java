@@ -0,0 +1,45 @@
+package cn.we.swipe.helper;
+
+import android.support.annotation.LayoutRes;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Created to : 延迟创建侧滑菜单.
+ * <p>
+ * ViewHolder实现这个接口之后,onCreateViewHolder的时候不需要创建菜单,{@link WeSwipeHelper}在即将开始侧滑
+ * 这个Item的时候才创建菜单并添加到{@link #getMenuParent()}中,绝大多数没有侧滑过的Item不再创建菜单.
+ * 添加之后菜单一直留在这个ViewHolder中.
+ * <p>
+ * {@link WeSwipeHelper#SWIPE_ITEM_TYPE_DEFAULT}类型的菜单添加在最下面,其他类型添加在最后.
+ * 菜单刚添加的时候还没有layout,{@link WeSwipeHelper.SwipeLayoutTypeCallBack#getSwipeWidth()}需要使用菜单宽度的话,
+ * 使用getMeasuredWidth().
+ *
+ * @author WANG
+ */
+public interface SwipeMenuProvider {
+
+    /**
+     * @return 菜单的布局,相同布局的菜单可以复用提前创建的.
+     */
+    @LayoutRes
+    int getMenuLayoutId();
+
+    /**
+     * @return 菜单添加到的父View.
+     */
+    ViewGroup getMenuParent();
+
+    /**
+     * @return 已经添加的菜单,还没有添加的话返回null.
+     */
+    View getMenu();
+
+    /**
+     * 菜单添加到{@link #getMenuParent()}之后调用,在这里找到菜单中的View,设置点击事件.
+     *
+     * @param menu 添加的菜单.
+     */
+    void onMenuAttached(View menu);
+
+}
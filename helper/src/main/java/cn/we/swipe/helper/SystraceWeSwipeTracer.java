@@ -0,0 +1,27 @@
+package cn.we.swipe.helper;
+
+import android.support.v4.os.TraceCompat;
+
+/**
+ * Created to : 使用{@link android.os.Trace}的beginSection/endSection,在systrace中可以看到WeSwipeHelper的工作.
+ * API 18以下不会有任何输出.
+ *
+ * @author WANG
+ */
+public class SystraceWeSwipeTracer implements WeSwipeTracer {
+
+    @Override
+    public void beginSection(String sectionName) {
+        TraceCompat.beginSection(sectionName);
+    }
+
+    @Override
+    public void endSection() {
+        TraceCompat.endSection();
+    }
+
+    @Override
+    public void event(String name, int value) {
+        // systrace只关心耗时的区间.
+    }
+}
@@ -47,6 +47,8 @@ public class WeSwipe {
      */
     private WeSwipeHelper mSwipeHelper;
 
+    private boolean mProxyNotifying;
+
     public void recoverAll(RecoverCallback callback){
         if(!haveInit()){
            return;
@@ -85,6 +87,151 @@ public class WeSwipe {
         return (mPrivateFlag & FLAG_MASK << 3) != 0;
     }
 
+    /**
+     * 设置是否允许多个Item同时打开,默认只能打开一个.
+     * 多个Item打开的时候,{@link #recoverAll(RecoverCallback)}会在同一个动画中关闭所有打开的Item.
+     *
+     * @param multiOpen true 允许多个Item同时打开.
+     * @return
+     */
+    public WeSwipe setMultiOpen(boolean multiOpen) {
+        if (!haveInit()) {
+            return this;
+        }
+        mSwipeHelper.setMultiOpen(multiOpen);
+        return this;
+    }
+
+    /**
+     * 设置开始滚动列表的时候是否关闭打开的Item,默认关闭.
+     * Adapter设置了stable id的时候,不关闭的话打开的Item滑出屏幕再回来仍然是打开的.
+     *
+     * @param closeOnScroll true 滚动的时候关闭打开的Item.
+     * @return
+     */
+    public WeSwipe setCloseOnScroll(boolean closeOnScroll) {
+        if (!haveInit()) {
+            return this;
+        }
+        mSwipeHelper.setCloseOnScroll(closeOnScroll);
+        return this;
+    }
+
+    /**
+     * 设置恢复动画是否使用弹簧动画,默认不使用.
+     * 使用的时候以松手的速度开始,按照剩余的距离结束,不再使用{@link #setRecoverAnimationDuration(int)}设置的时长.
+     *
+     * @param springSettle true 使用弹簧动画.
+     * @return
+     */
+    public WeSwipe setSpringSettle(boolean springSettle) {
+        if (!haveInit()) {
+            return this;
+        }
+        mSwipeHelper.setSpringSettle(springSettle);
+        return this;
+    }
+
+    /**
+     * 设置是否使用平铺模式,默认不使用.
+     * 平铺模式下侧滑的Item只改变平移,不改变elevation,低端设备上移动的过程中不需要绘制阴影.
+     *
+     * @param flat true 使用平铺模式.
+     * @return
+     */
+    public WeSwipe setFlatSwipe(boolean flat) {
+        if (!haveInit()) {
+            return this;
+        }
+        mSwipeHelper.setFlatSwipe(flat);
+        return this;
+    }
+
+    /**
+     * 设置侧滑和恢复的过程中是否给滑动的View设置硬件层,默认不设置.
+     * 内容复杂的Item设置之后,每一帧只需要移动缓存的纹理;没有超过slop的点击不会设置.
+     *
+     * @param hardwareLayer true 设置硬件层.
+     * @return
+     */
+    public WeSwipe setHardwareLayerSwipe(boolean hardwareLayer) {
+        if (!haveInit()) {
+            return this;
+        }
+        mSwipeHelper.setHardwareLayerSwipe(hardwareLayer);
+        return this;
+    }
+
+    /**
+     * 设置是否提前创建{@link SwipeMenuProvider}的菜单,默认不创建.
+     * 按下的时候在主线程空闲时给手指附近的Item提前创建菜单,开始侧滑的时候直接使用.
+     *
+     * @param prefetch true 提前创建.
+     * @return
+     */
+    public WeSwipe setMenuPrefetch(boolean prefetch) {
+        if (!haveInit()) {
+            return this;
+        }
+        mSwipeHelper.setMenuPrefetch(prefetch);
+        return this;
+    }
+
+    /**
+     * Adapter有stable id的时候,打开的状态按照id记录,数据变化之前不需要关闭打开的Item.
+     */
+    boolean hasStableOpenState() {
+        return haveInit() && mSwipeHelper.hasStableOpenState();
+    }
+
+    /**
+     * @return true RecyclerView使用的是{@link WeSwipeItemAnimator}.
+     */
+    boolean hasSwipeItemAnimator() {
+        return haveInit() && mSwipeHelper.hasSwipeItemAnimator();
+    }
+
+    /**
+     * 关闭adapter position在范围中打开的Item.
+     *
+     * @param animate true 播放关闭动画,false 直接回到原位.
+     */
+    void closeOpenedInRange(int positionStart, int itemCount, boolean animate) {
+        if (haveInit()) {
+            mSwipeHelper.closeOpenedInRange(positionStart, itemCount, animate);
+        }
+    }
+
+    /**
+     * {@link WeSwipeProxyAdapter}立即刷新的时候已经更新了打开的状态,
+     * 分发期间{@link WeSwipeAdapterDataObserver}不再重复处理.
+     */
+    void setProxyNotifying(boolean notifying) {
+        mProxyNotifying = notifying;
+    }
+
+    boolean isProxyNotifying() {
+        return mProxyNotifying;
+    }
+
+    void onOpenedRangeInserted(int positionStart, int itemCount) {
+        if (haveInit()) {
+            mSwipeHelper.onOpenedRangeInserted(positionStart, itemCount);
+        }
+    }
+
+    void onOpenedRangeRemoved(int positionStart, int itemCount, boolean animate) {
+        if (haveInit()) {
+            mSwipeHelper.onOpenedRangeRemoved(positionStart, itemCount, animate);
+        }
+    }
+
+    void onOpenedItemMoved(int fromPosition, int toPosition, boolean animate) {
+        if (haveInit()) {
+            mSwipeHelper.onOpenedItemMoved(fromPosition, toPosition, animate);
+        }
+    }
+
     /**
      * {@link WeSwipeHelper}
      *
@@ -160,6 +307,35 @@ public class WeSwipe {
         return this;
     }
 
+    /**
+     * 设置追踪WeSwipeHelper工作的{@link WeSwipeTracer},默认是{@link WeSwipeTracer#NONE}.
+     * 需要在systrace中查看的时候可以设置{@link SystraceWeSwipeTracer}.
+     *
+     * @param tracer null的话关闭追踪.
+     * @return
+     */
+    public WeSwipe setTracer(WeSwipeTracer tracer) {
+        if (!haveInit()) {
+            return this;
+        }
+        mSwipeHelper.setTracer(tracer);
+        return this;
+    }
+
+    /**
+     * 设置手势耗时的监听,每一次完整的手势结束之后回调一次.
+     *
+     * @param listener null的话停止统计.
+     * @return
+     */
+    public WeSwipe setMetricsListener(WeSwipeMetricsListener listener) {
+        if (!haveInit()) {
+            return this;
+        }
+        mSwipeHelper.setMetricsListener(listener);
+        return this;
+    }
+
     /**
      * 是否开启Debug模式.在生产环境下面默认是不不打开的.
      *
@@ -5,6 +5,10 @@ import android.util.Log;
 
 /**
  * Created to : 监听RecyclerView#Adapter的数据变化,变化的时候会自定回复布局。
+ * <p>
+ * 只有变化的范围包含打开的Item时才关闭它;在打开的Item前面插入,删除或者移动的时候,打开的Item保持打开,
+ * 记录的position跟着移动.需要在{@link RecyclerView#setAdapter(RecyclerView.Adapter)}之后注册,
+ * 这样会先于RecyclerView收到回调,ViewHolder的position还是变化之前的.
  *
  * @author WANG
  * @date 2020/8/8
@@ -13,46 +17,74 @@ public class WeSwipeAdapterDataObserver extends RecyclerView.AdapterDataObserver
 
     private WeSwipe mWeSwipe;
 
+    private boolean mKeepOpenOnPayload;
+
     public WeSwipeAdapterDataObserver(WeSwipe weSwipe) {
         this.mWeSwipe = weSwipe;
     }
 
+    /**
+     * 设置只有payload的刷新是否保持打开的Item,默认关闭.
+     * 保持打开的话需要在onBindViewHolder(holder, position, payloads)中局部刷新.
+     *
+     * @param keepOpenOnPayload true 带payload的onItemRangeChanged不关闭打开的Item.
+     */
+    public void setKeepOpenOnPayload(boolean keepOpenOnPayload) {
+        mKeepOpenOnPayload = keepOpenOnPayload;
+    }
+
     /**
      * recAdapter.notifyDataSetChanged();
      */
     @Override
     public void onChanged() {
-        recover();
+        // 不知道变化的范围,全部关闭.
+        if (needUpdate()) {
+            mWeSwipe.recoverAll(null);
+        }
     }
 
     @Override
     public void onItemRangeChanged(int positionStart, int itemCount) {
-        recover();
+        if (needUpdate()) {
+            mWeSwipe.closeOpenedInRange(positionStart, itemCount, true);
+        }
     }
 
     @Override
     public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
-        recover();
+        if (null != payload && mKeepOpenOnPayload) {
+            // 同一个ViewHolder局部刷新,平移保持不变.
+            return;
+        }
+        onItemRangeChanged(positionStart, itemCount);
     }
 
     @Override
     public void onItemRangeInserted(int positionStart, int itemCount) {
-        recover();
+        if (needUpdate()) {
+            mWeSwipe.onOpenedRangeInserted(positionStart, itemCount);
+        }
     }
 
     @Override
     public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
-        recover();
+        // RecyclerView目前只支持移动一个Item.
+        if (needUpdate()) {
+            mWeSwipe.onOpenedItemMoved(fromPosition, toPosition, true);
+        }
     }
 
     @Override
     public void onItemRangeRemoved(int positionStart, int itemCount) {
-        recover();
+        if (needUpdate()) {
+            mWeSwipe.onOpenedRangeRemoved(positionStart, itemCount, true);
+        }
     }
 
-    private void recover() {
-        if (null != mWeSwipe) {
-            mWeSwipe.recoverAll(null);
-        }
+    private boolean needUpdate() {
+        // 有stable id的时候打开的状态不会错乱,不需要关闭.
+        return null != mWeSwipe && mWeSwipe.haveRecoverItem() && !mWeSwipe.hasStableOpenState()
+                && !mWeSwipe.isProxyNotifying();
     }
 }
@@ -0,0 +1,47 @@
+package cn.we.swipe.helper;
+
+import android.support.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Created to : {@link WeSwipeProxyAdapter#submitList(List, WeSwipeDiffCallback)}使用的回调.
+ * <p>
+ * {@link #areItemsTheSame(Object, Object)},{@link #areContentsTheSame(Object, Object)}和
+ * {@link #getChangePayload(Object, Object)}在后台线程中调用;
+ * {@link #getCurrentList()}和{@link #setCurrentList(List)}在主线程中调用.
+ *
+ * @author WANG
+ */
+public abstract class WeSwipeDiffCallback<T> {
+
+    /**
+     * @return Adapter当前使用的数据,提交的时候会复制一份用来计算差异.
+     */
+    public abstract List<T> getCurrentList();
+
+    /**
+     * 差异计算完成之后,在分发刷新之前调用,Adapter需要在这里换成新的数据.
+     *
+     * @param newList 提交的新数据.
+     */
+    public abstract void setCurrentList(List<T> newList);
+
+    /**
+     * @return 两个数据是否是同一个Item,一般比较id.
+     */
+    public abstract boolean areItemsTheSame(T oldItem, T newItem);
+
+    /**
+     * @return 同一个Item的内容是否没有变化,没有变化的话不会重新绑定.
+     */
+    public abstract boolean areContentsTheSame(T oldItem, T newItem);
+
+    /**
+     * @return 内容变化时传给{@link android.support.v7.widget.RecyclerView.Adapter#notifyItemChanged(int, Object)}的payload.
+     */
+    @Nullable
+    public Object getChangePayload(T oldItem, T newItem) {
+        return null;
+    }
+}
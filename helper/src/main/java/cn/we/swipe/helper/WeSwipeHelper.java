@@ -1,9 +1,5 @@
 package cn.we.swipe.helper;
 
-import android.animation.Animator;
-import android.animation.AnimatorListenerAdapter;
-import android.animation.ObjectAnimator;
-import android.animation.ValueAnimator;
 import android.content.res.Resources;
 import android.graphics.Canvas;
 import android.graphics.Rect;
@@ -25,8 +21,13 @@ import android.view.ViewParent;
 import android.view.animation.Interpolator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import cn.we.swipe.core.SwipeDecisions;
+import cn.we.swipe.core.SwipeDirections;
+import cn.we.swipe.core.SwipeStateMachine;
+
 /**
  * 1.事件的分发
  * 2.取消的时候自动滑动.
@@ -47,22 +48,22 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
     /**
      * Up direction, used for swipe & drag control.
      */
-    public static final int UP = 1;
+    public static final int UP = SwipeDirections.UP;
 
     /**
      * Down direction, used for swipe & drag control.
      */
-    public static final int DOWN = 1 << 1;
+    public static final int DOWN = SwipeDirections.DOWN;
 
     /**
      * Left direction, used for swipe & drag control.
      */
-    public static final int LEFT = 1 << 2;
+    public static final int LEFT = SwipeDirections.LEFT;
 
     /**
      * Right direction, used for swipe & drag control.
      */
-    public static final int RIGHT = 1 << 3;
+    public static final int RIGHT = SwipeDirections.RIGHT;
 
     // If you change these relative direction values, update Callback#convertToAbsoluteDirection,
     // Callback#convertToRelativeDirection.
@@ -70,29 +71,29 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
      * Horizontal start direction. Resolved to LEFT or RIGHT depending on RecyclerView's layout
      * direction. Used for swipe & drag control.
      */
-    public static final int START = LEFT << 2;
+    public static final int START = SwipeDirections.START;
 
     /**
      * Horizontal end direction. Resolved to LEFT or RIGHT depending on RecyclerView's layout
      * direction. Used for swipe & drag control.
      */
-    public static final int END = RIGHT << 2;
+    public static final int END = SwipeDirections.END;
 
     /**
      * WeSwipeHelper is in idle state. At this state, either there is no related motion event by
      * the user or latest motion events have not yet triggered a swipe or drag.
      */
-    public static final int ACTION_STATE_IDLE = 0;
+    public static final int ACTION_STATE_IDLE = SwipeDirections.ACTION_STATE_IDLE;
 
     /**
      * A View is currently being swiped.
      */
-    public static final int ACTION_STATE_SWIPE = 1;
+    public static final int ACTION_STATE_SWIPE = SwipeDirections.ACTION_STATE_SWIPE;
 
     /**
      * A View is currently being dragged.
      */
-    public static final int ACTION_STATE_DRAG = 2;
+    public static final int ACTION_STATE_DRAG = SwipeDirections.ACTION_STATE_DRAG;
 
     /**
      * Animation type for views which are swiped successfully.
@@ -116,19 +117,22 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
 
     static final int ACTIVE_POINTER_ID_NONE = -1;
 
-    static final int DIRECTION_FLAG_COUNT = 8;
-
-    private static final int ACTION_MODE_IDLE_MASK = (1 << DIRECTION_FLAG_COUNT) - 1;
+    static final int DIRECTION_FLAG_COUNT = SwipeDirections.DIRECTION_FLAG_COUNT;
 
-    static final int ACTION_MODE_SWIPE_MASK = ACTION_MODE_IDLE_MASK << DIRECTION_FLAG_COUNT;
+    static final int ACTION_MODE_SWIPE_MASK = SwipeDirections.ACTION_MODE_SWIPE_MASK;
 
-    static final int ACTION_MODE_DRAG_MASK = ACTION_MODE_SWIPE_MASK << DIRECTION_FLAG_COUNT;
+    static final int ACTION_MODE_DRAG_MASK = SwipeDirections.ACTION_MODE_DRAG_MASK;
 
     /**
      * The unit we are using to track velocity
      */
     private static final int PIXELS_PER_SECOND = 1000;
 
+    /**
+     * 弹簧动画距离终点小于这个像素并且几乎静止的时候结束.
+     */
+    private static final float SPRING_THRESHOLD_PX = 0.5f;
+
     private final int SWIPE_FLAG_MASK = 0x1;
 
     private int mSwipeType;
@@ -272,9 +276,9 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
     int mOverdrawChildPosition = -1;
 
     /**
-     * Is the last open item closed
+     * Open / closed state of the swipe menu, the decisions themselves live in swipe-core.
      */
-    private boolean mCloseAnimaIsFinish = true;
+    private final SwipeStateMachine mSwipeState = new SwipeStateMachine();
 
     /**
      * Whether the current entry has been clicked
@@ -284,10 +288,135 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
     /**
      * Previous selected view holder
      */
-    private RecyclerView.ViewHolder mPreOpened = null;
+    RecyclerView.ViewHolder mPreOpened = null;
 
     private View mClickOtherView;
 
+    /**
+     * 是否允许多个Item同时打开,默认只能打开一个,打开的Item记录在{@link #mPreOpened}中.
+     */
+    private boolean mMultiOpen;
+
+    /**
+     * 打开的Item的状态.只能打开一个的时候最多只有一个,和{@link #mPreOpened}对应;
+     * Adapter有stable id的时候,Item离开屏幕之后状态也会保留,重新显示的时候恢复打开的样子.
+     */
+    final OpenSwipeStates mOpenStates = new OpenSwipeStates();
+
+    /**
+     * 关闭打开的Item的方式:直接回到原位,播放关闭动画,或者只清除状态保留平移(交给ItemAnimator).
+     */
+    private static final int CLOSE_SNAP = 0;
+
+    private static final int CLOSE_ANIMATE = 1;
+
+    private static final int CLOSE_RELEASE = 2;
+
+    /**
+     * 开始滚动列表的时候是否关闭打开的Item.
+     */
+    private boolean mCloseOnScroll = true;
+
+    /**
+     * 是否用按照松手速度开始的弹簧动画代替固定时长的恢复动画.
+     */
+    private boolean mSpringSettle;
+
+    /**
+     * Callback只设置滑动的View的平移的时候,侧滑和恢复动画每一帧只更新平移,不重绘整个RecyclerView.
+     * 重写了onChildDraw在Canvas上绘制的Callback仍然每一帧重绘.
+     */
+    private final boolean mTranslationOnly;
+
+    /**
+     * 侧滑和恢复的过程中是否给滑动的View设置硬件层.
+     */
+    private boolean mHardwareLayerSwipe;
+
+    /**
+     * 设置了硬件层的View,停下来之后还原.
+     */
+    private final List<View> mLayerViews = new ArrayList<>();
+
+    /**
+     * 给{@link SwipeMenuProvider}延迟创建菜单.
+     */
+    private final LazyMenuInflater mMenuInflater = new LazyMenuInflater();
+
+    /**
+     * 按下的时候是否在空闲时提前给手指附近的Item创建菜单.
+     */
+    private boolean mMenuPrefetch;
+
+    /**
+     * 多个Item打开的时候,按下的位置所在的打开的Item.
+     */
+    private RecyclerView.ViewHolder mTouchedOpened;
+
+    /**
+     * 侧滑恢复,关闭单个Item和关闭所有Item的动画都由它驱动,每一帧只有一个回调.
+     */
+    private final SwipeAnimationEngine mAnimationEngine = new SwipeAnimationEngine();
+
+    /**
+     * RecyclerView中Item的最大elevation,由Item的attach/detach更新.
+     */
+    private final ElevationTracker mElevationTracker = new ElevationTracker();
+
+    /**
+     * 结束之后的{@link RecoverAnimation},下一次侧滑的时候重复使用.
+     */
+    private final List<RecoverAnimation> mRecoverAnimationPool = new ArrayList<>();
+
+    /**
+     * 正在执行的关闭单个Item的动画,结束之后放回{@link #mFrontClosePool}.
+     */
+    private final List<FrontCloseAnimation> mFrontCloseAnimations = new ArrayList<>();
+
+    private final List<FrontCloseAnimation> mFrontClosePool = new ArrayList<>();
+
+    /**
+     * 同时关闭多个Item的动画,所有的Item在同一帧中更新.
+     */
+    private final RecoverAllAnimation mRecoverAllAnimation = new RecoverAllAnimation();
+
+    /**
+     * 正在关闭的时候被手指接管的Item,以及它关闭之后需要执行的回调.
+     */
+    private RecyclerView.ViewHolder mGrabbedHolder;
+
+    private RecoverCallback mGrabbedCallback;
+
+    /**
+     * 等待分发{@link Callback#onSwiped(RecyclerView.ViewHolder, int)}的滑动和方向.
+     */
+    private final List<RecoverAnimation> mPendingSwipes = new ArrayList<>();
+
+    private int[] mPendingSwipeDirs = new int[4];
+
+    /**
+     * 正在执行的{@link RecoverAnimation}的数量,开始的时候加一,结束的时候减一.
+     */
+    private int mRunningRecoverCount;
+
+    private boolean mSwipeDispatchScheduled;
+
+    /**
+     * 已经注册了结束回调的ItemAnimator.换了ItemAnimator之后需要在新的上面重新注册,
+     * 旧的不一定还会回调.
+     */
+    private RecyclerView.ItemAnimator mWaitingItemAnimator;
+
+    /**
+     * 追踪WeSwipeHelper的工作,默认什么都不做.
+     */
+    private WeSwipeTracer mTracer = WeSwipeTracer.NONE;
+
+    /**
+     * 手势耗时的统计,没有设置{@link WeSwipeMetricsListener}的时候为null.
+     */
+    private GestureMetricsRecorder mMetrics;
+
 
     float mLastX = 0;
 
@@ -304,62 +433,96 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
      * @return
      */
     public void setItemSlideType(int type) {
+        if (mSwipeType == type) {
+            return;
+        }
+        final boolean wasDefault = mSwipeType == SWIPE_ITEM_TYPE_DEFAULT;
         mSwipeType = type;
+        if (wasDefault) {
+            resetAttachedMenus();
+        } else {
+            updateAttachedMenus();
+        }
     }
 
     /**
      * 使用功能的RecyclerView，将拦截一些事件。想让ItemView接收到事件的话.
      */
-    private final RecyclerView.OnItemTouchListener mOnItemTouchListener = new RecyclerView.OnItemTouchListener() {
+    final RecyclerView.OnItemTouchListener mOnItemTouchListener = new RecyclerView.OnItemTouchListener() {
         @Override
         public boolean onInterceptTouchEvent(RecyclerView recyclerView, MotionEvent event) {
             if (DEBUG) {
                 Log.d(TAG, "intercept: x:" + event.getX() + ",y:" + event.getY() + ", " + event);
             }
-            final int action = event.getActionMasked();
-            if (action == MotionEvent.ACTION_DOWN) {
-                mClick = true;
-                mLastX = event.getX();
-                mActivePointerId = event.getPointerId(0);
-                mInitialTouchX = event.getX();
-                mInitialTouchY = event.getY();
-                obtainVelocityTracker();
-                if (null != mPreOpened) {
-                    boolean swipeViewBounds = checkSwipeViewBounds(event);
-                    boolean isMe = false;
-                    mClickOtherView = findChildView(event);
-                    if (null == mClickOtherView) {
-                        isMe = false;
-                    } else if (mClickOtherView != mPreOpened.itemView) {
-                        isMe = true;
+            mTracer.beginSection(WeSwipeTracer.SECTION_INTERCEPT);
+            try {
+                final int action = event.getActionMasked();
+                if (action == MotionEvent.ACTION_DOWN) {
+                    mClick = true;
+                    mLastX = event.getX();
+                    mActivePointerId = event.getPointerId(0);
+                    mInitialTouchX = event.getX();
+                    mInitialTouchY = event.getY();
+                    obtainVelocityTracker();
+                    if (mMetrics != null) {
+                        mMetrics.onDown();
+                    }
+                    if (mMenuPrefetch) {
+                        prefetchMenus(event);
                     }
-                    mCloseAnimaIsFinish = false;
-                    if (swipeViewBounds || isMe) {
+                    if (grabSettlingItem(event)) {
                         mClick = false;
-                        recoveryOpenedPreItem(mPreOpened);
                         return true;
                     }
+                    if (mMultiOpen) {
+                        if (interceptOpenedDown(event)) {
+                            mClick = false;
+                            return true;
+                        }
+                    } else if (null != mPreOpened && findFrontCloseAnimation(mPreOpened) == null) {
+                        boolean swipeViewBounds = checkSwipeViewBounds(mPreOpened, event);
+                        boolean isMe = false;
+                        mClickOtherView = findChildView(event);
+                        if (null == mClickOtherView) {
+                            isMe = false;
+                        } else if (mClickOtherView != mPreOpened.itemView) {
+                            isMe = true;
+                        }
+                        mSwipeState.block();
+                        if (swipeViewBounds || isMe) {
+                            mClick = false;
+                            recoveryOpenedPreItem(mPreOpened);
+                            return true;
+                        }
+                    } else {
+                        // 关闭动画已经开始了,新的手势不需要等它结束.
+                        mSwipeState.unblock();
+                    }
+                } else if (action == MotionEvent.ACTION_CANCEL || action == MotionEvent.ACTION_UP) {
+                    if (mMetrics != null) {
+                        mMetrics.onUp();
+                    }
+                    final RecyclerView.ViewHolder opened = mMultiOpen ? mTouchedOpened : mPreOpened;
+                    if (mClick && null != opened && mSwipeType == SWIPE_ITEM_TYPE_FLOWING) {
+                        doChildClickEvent(opened, event.getRawX(), event.getRawY());
+                    }
+                    mTouchedOpened = null;
+                    mActivePointerId = ACTIVE_POINTER_ID_NONE;
+                    select(null, ACTION_STATE_IDLE, false);
+                    //查找可以滑动的ItemView之前,先判断界面中是否有打开侧滑的Item.
+                } else if (mActivePointerId != ACTIVE_POINTER_ID_NONE && mSwipeState.canStartSwipe()) {
+                    final int index = event.findPointerIndex(mActivePointerId);
+                    if (index >= 0) {
+                        checkSelectForSwipe(action, event, index);
+                    }
                 }
-            } else if (action == MotionEvent.ACTION_CANCEL || action == MotionEvent.ACTION_UP) {
-                //
-                if (mClick && null != mPreOpened && mSwipeType == SWIPE_ITEM_TYPE_FLOWING) {
-                    doChildClickEvent(event.getRawX(), event.getRawY());
-                }
-                mActivePointerId = ACTIVE_POINTER_ID_NONE;
-                select(null, ACTION_STATE_IDLE, false);
-                //查找可以滑动的ItemView之前,先判断界面中是否有打开侧滑的Item.
-            } else if (mActivePointerId != ACTIVE_POINTER_ID_NONE && mCloseAnimaIsFinish) {
-                final int index = event.findPointerIndex(mActivePointerId);
-                if (index >= 0) {
-                    checkSelectForSwipe(action, event, index);
+                if (mVelocityTracker != null) {
+                    mVelocityTracker.addMovement(event);
                 }
+                return mSelected != null;
+            } finally {
+                mTracer.endSection();
             }
-            if (mVelocityTracker != null) {
-                mVelocityTracker.addMovement(event);
-            }
-
-            Log.e("WANG", "WeSwipeHelper.onInterceptTouchEvent" + mSelected);
-            return mSelected != null;
         }
 
         @Override
@@ -367,7 +530,7 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
             if (mVelocityTracker != null) {
                 mVelocityTracker.addMovement(event);
             }
-            if (mActivePointerId == ACTIVE_POINTER_ID_NONE || !mCloseAnimaIsFinish) {
+            if (mActivePointerId == ACTIVE_POINTER_ID_NONE || !mSwipeState.canStartSwipe()) {
                 return;
             }
             final int action = event.getActionMasked();
@@ -392,7 +555,11 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
                         moveIfNecessary(viewHolder);
                         mRecyclerView.removeCallbacks(mScrollRunnable);
                         mScrollRunnable.run();
-                        mRecyclerView.invalidate();
+                        if (mTranslationOnly && mActionState == ACTION_STATE_SWIPE) {
+                            applySelectedTranslation();
+                        } else {
+                            mRecyclerView.invalidate();
+                        }
                     }
                     break;
                 }
@@ -402,6 +569,9 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
                     }
                     // fall through
                 case MotionEvent.ACTION_UP:
+                    if (mMetrics != null) {
+                        mMetrics.onUp();
+                    }
                     if (mClick) {
                         // doChildClickEvent(event.getRawX(), event.getRawY());
                         //you can do something
@@ -411,11 +581,8 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
                     if (swiped <= 0) {
                         View swipeView = getNeedSwipeLayout(viewHolder);
                         if (null != swipeView) {
-                            float swipeWidth = getSwipeWidth(viewHolder) / 2;
-                            float translationX = swipeView.getTranslationX();
-                            if (Math.abs(translationX) >= swipeWidth) {
-                                needRecovery = true;
-                            }
+                            needRecovery = SwipeDecisions.shouldOpen(swipeView.getTranslationX(),
+                                    getSwipeWidth(viewHolder));
                         }
                     }
                     select(null, ACTION_STATE_IDLE, needRecovery);
@@ -449,21 +616,158 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
         }
     };
 
-    private boolean checkSwipeViewBounds(MotionEvent event) {
-        View view = getViewOnScreen(mPreOpened);
+    private boolean checkSwipeViewBounds(RecyclerView.ViewHolder opened, MotionEvent event) {
+        View view = getViewOnScreen(opened);
         if (null == view) {
             return false;
         }
-        int[] location = new int[2];
-        Rect screen = getViewRectForScreen(view, location);
+        Rect screen = getViewRectForScreen(view);
         return screen.contains((int) event.getRawX(), (int) event.getRawY());
     }
 
+    /**
+     * 按在了正在关闭或者正在恢复的Item上的时候,把它交给手指:停在当前的位置,从当前的平移继续侧滑.
+     *
+     * @return true 已经选中了这个Item.
+     */
+    private boolean grabSettlingItem(MotionEvent event) {
+        if (mSelected != null || !mCallback.isItemViewSwipeEnabled()) {
+            return false;
+        }
+        final View child = findChildView(event);
+        if (child == null) {
+            return false;
+        }
+        final RecyclerView.ViewHolder holder = mRecyclerView.getChildViewHolder(child);
+        final View front = getItemFrontView(holder);
+        if (front == null) {
+            return false;
+        }
+        final FrontCloseAnimation closing = findFrontCloseAnimation(holder);
+        if (closing != null) {
+            // 停在当前的平移,仍然是打开的状态,等待关闭的回调交给这次手势.
+            mAnimationEngine.cancel(closing);
+        } else if (mRecoverAllAnimation.contains(front)) {
+            // 其他的Item继续关闭,回调等这个Item也关闭之后再执行.
+            handOverRecoverCallback(holder, mRecoverAllAnimation.mCallback);
+            mRecoverAllAnimation.mCallback = null;
+            mRecoverAllAnimation.remove(front);
+        } else if (!isSwipeSettling(holder)) {
+            return false;
+        }
+        final float translationX = front.getTranslationX();
+        mSwipeState.unblock();
+        // select()会取消这个Item正在执行的恢复动画.
+        select(holder, ACTION_STATE_SWIPE, false);
+        mInitialTouchX = event.getX() - translationX;
+        mDx = translationX;
+        mDy = 0f;
+        return true;
+    }
+
+    /**
+     * 正在关闭的Item被手指接管的时候,关闭之后的回调(比如{@link WeSwipeProxyAdapter}等待分发的刷新)
+     * 交给这次手势,松手之后这个Item真正关闭了才回调.
+     */
+    private void handOverRecoverCallback(RecyclerView.ViewHolder holder, RecoverCallback callback) {
+        if (callback == null) {
+            return;
+        }
+        mGrabbedHolder = holder;
+        mGrabbedCallback = chain(mGrabbedCallback, callback);
+    }
+
+    /**
+     * 被接管的Item停下来之后调用:已经关闭的话回调,重新打开的话再关闭一次,关闭之后回调.
+     *
+     * @param closed true 这个Item已经关闭或者不在屏幕上了.
+     */
+    private void settleGrabbedItem(boolean closed) {
+        final RecyclerView.ViewHolder holder = mGrabbedHolder;
+        final RecoverCallback callback = mGrabbedCallback;
+        mGrabbedHolder = null;
+        mGrabbedCallback = null;
+        if (callback == null) {
+            return;
+        }
+        if (!closed) {
+            recoveryOpenedPreItem(holder, -1, callback);
+        } else if (!mRecoverAllAnimation.mViews.isEmpty()) {
+            mRecoverAllAnimation.mCallback = chain(mRecoverAllAnimation.mCallback, callback);
+        } else {
+            callback.recoverEnd();
+        }
+    }
+
+    /**
+     * @return true 松手之后的恢复动画还没有结束.
+     */
+    private boolean isSwipeSettling(RecyclerView.ViewHolder holder) {
+        for (int i = mRecoverAnimations.size() - 1; i >= 0; i--) {
+            final RecoverAnimation anim = mRecoverAnimations.get(i);
+            if (anim.mViewHolder == holder) {
+                return !anim.mEnded && anim.mActionState == ACTION_STATE_SWIPE;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 多个Item打开的时候处理按下的事件:按在打开的Item的前景View上的话关闭该Item并消费事件,
+     * 按在菜单上的话记录下来,抬起的时候分发点击事件.其他打开的Item保持不变.
+     *
+     * @return true 消费该事件.
+     */
+    private boolean interceptOpenedDown(MotionEvent event) {
+        mTouchedOpened = null;
+        if (mOpenStates.isEmpty()) {
+            return false;
+        }
+        final View child = findChildView(event);
+        if (child == null) {
+            return false;
+        }
+        final RecyclerView.ViewHolder holder = mRecyclerView.getChildViewHolder(child);
+        if (holder == null || !mOpenStates.contains(openKeyOf(holder))) {
+            return false;
+        }
+        if (checkSwipeViewBounds(holder, event)) {
+            recoveryOpenedPreItem(holder);
+            return true;
+        }
+        mTouchedOpened = holder;
+        return false;
+    }
+
+    /**
+     * 打开状态的key,有stable id的时候使用stable id,否则使用adapter position.
+     */
+    private long openKeyOf(RecyclerView.ViewHolder holder) {
+        final RecyclerView.Adapter adapter = mRecyclerView.getAdapter();
+        if (adapter != null && adapter.hasStableIds()) {
+            return holder.getItemId();
+        }
+        return holder.getAdapterPosition();
+    }
+
     /**
      * Temporary rect instance that is used when we need to lookup Item decorations.
      */
     private Rect mTmpRect;
 
+    /**
+     * Re-used by the touch path to hit test views on screen, so that no garbage is created
+     * while the user is interacting with an opened item.
+     */
+    private final int[] mTmpLocation = new int[2];
+
+    private final Rect mTmpScreenRect = new Rect();
+
+    /**
+     * 侧滑的时候菜单露出来的区域,{@link View#setClipBounds}会复制一份,可以复用.
+     */
+    private final Rect mTmpClipRect = new Rect();
+
     /**
      * When user started to drag scroll. Reset when we don't scroll
      */
@@ -480,16 +784,277 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
      */
     public WeSwipeHelper(WeSwipeHelper.Callback callback) {
         mCallback = callback;
+        mTranslationOnly = isTranslationOnly(callback);
+    }
+
+    /**
+     * Callback绘制Item的时候是否只设置滑动的View的平移:{@link WeSwipeCallback#onChildDraw}没有被重写,
+     * {@link Callback#onChildDrawOver}也没有被重写.只检查一次.
+     */
+    private static boolean isTranslationOnly(Callback callback) {
+        final Class<?> cls = callback.getClass();
+        try {
+            return cls.getMethod("onChildDraw", Canvas.class, RecyclerView.class, RecyclerView.ViewHolder.class,
+                    View.class, float.class, float.class, int.class, boolean.class, float.class)
+                    .getDeclaringClass() == WeSwipeCallback.class
+                    && cls.getMethod("onChildDrawOver", Canvas.class, RecyclerView.class,
+                    RecyclerView.ViewHolder.class, float.class, float.class, int.class, boolean.class)
+                    .getDeclaringClass() == Callback.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 只更新选中的Item的平移,不需要重绘RecyclerView.
+     */
+    private void applySelectedTranslation() {
+        if (mSelected == null) {
+            return;
+        }
+        getSelectedDxDy(mTmpPosition);
+        applyTranslation(mSelected, mTmpPosition[0], mTmpPosition[1], mActionState, true);
+        if (mMetrics != null && (mTmpPosition[0] != 0 || mTmpPosition[1] != 0)) {
+            mMetrics.onTranslated();
+        }
+    }
+
+    /**
+     * {@link #mTranslationOnly}的时候{@link WeSwipeCallback#onChildDraw}不使用Canvas,直接设置平移.
+     */
+    private void applyTranslation(RecyclerView.ViewHolder holder, float dX, float dY, int actionState,
+                                  boolean isCurrentlyActive) {
+        mCallback.onChildDraw(null, mRecyclerView, holder, getNeedSwipeLayout(holder), dX, dY, actionState,
+                isCurrentlyActive, getSwipeWidth(holder));
+        updateMenuClip(holder);
     }
 
     public Callback getCallback() {
         return mCallback;
     }
 
+    /**
+     * 设置追踪器,传null的话关闭追踪.
+     *
+     * @param tracer {@link WeSwipeTracer}
+     */
+    public void setTracer(WeSwipeTracer tracer) {
+        mTracer = tracer == null ? WeSwipeTracer.NONE : tracer;
+    }
+
+    /**
+     * 设置手势耗时的监听,传null的话停止统计.
+     *
+     * @param listener {@link WeSwipeMetricsListener}
+     */
+    public void setMetricsListener(WeSwipeMetricsListener listener) {
+        if (mMetrics != null) {
+            mMetrics.attach(null);
+        }
+        if (listener == null) {
+            mMetrics = null;
+            mAnimationEngine.setFrameListener(null);
+            return;
+        }
+        mMetrics = new GestureMetricsRecorder(listener);
+        mMetrics.attach(mRecyclerView);
+        mAnimationEngine.setFrameListener(mMetrics);
+    }
+
     public boolean swipeEnable() {
         return mCallback.isItemViewSwipeEnabled();
     }
 
+    /**
+     * 设置是否允许多个Item同时打开.关闭该模式的时候会关闭所有打开的Item.
+     *
+     * @param multiOpen true 允许多个Item同时打开.
+     */
+    public void setMultiOpen(boolean multiOpen) {
+        if (mMultiOpen == multiOpen) {
+            return;
+        }
+        if (mMultiOpen) {
+            recoverAllOpened(-1, null);
+        } else if (mPreOpened != null) {
+            recoveryOpenedPreItem(mPreOpened);
+        }
+        mMultiOpen = multiOpen;
+    }
+
+    public boolean isMultiOpen() {
+        return mMultiOpen;
+    }
+
+    /**
+     * 设置开始滚动列表的时候是否关闭打开的Item,默认关闭.
+     * Adapter有stable id的时候,不关闭的话打开的Item滑出屏幕再回来仍然是打开的.
+     *
+     * @param closeOnScroll true 滚动的时候关闭打开的Item.
+     */
+    public void setCloseOnScroll(boolean closeOnScroll) {
+        mCloseOnScroll = closeOnScroll;
+    }
+
+    /**
+     * 设置恢复动画是否使用临界阻尼的弹簧动画,默认不使用.
+     * 使用的时候以松手的速度开始,距离短的时候几帧就结束,设置的动画时长不再生效.
+     *
+     * @param springSettle true 使用弹簧动画.
+     */
+    public void setSpringSettle(boolean springSettle) {
+        mSpringSettle = springSettle;
+    }
+
+    public boolean isSpringSettle() {
+        return mSpringSettle;
+    }
+
+    /**
+     * 设置是否使用平铺模式,默认不使用.
+     * 平铺模式下侧滑的Item只改变平移,不提升elevation,移动的过程中不需要绘制阴影.
+     *
+     * @param flat true 使用平铺模式.
+     */
+    public void setFlatSwipe(boolean flat) {
+        mCallback.mFlat = flat;
+    }
+
+    public boolean isFlatSwipe() {
+        return mCallback.mFlat;
+    }
+
+    /**
+     * 设置侧滑和恢复的过程中是否给滑动的View设置{@link View#LAYER_TYPE_HARDWARE},默认不设置.
+     * 超过slop开始侧滑的时候设置,停下来之后还原,每一帧只需要移动缓存的纹理.
+     * 适合内容复杂的Item;内容在滑动过程中会变化的Item不适合.
+     *
+     * @param hardwareLayer true 设置硬件层.
+     */
+    public void setHardwareLayerSwipe(boolean hardwareLayer) {
+        mHardwareLayerSwipe = hardwareLayer;
+    }
+
+    public boolean isHardwareLayerSwipe() {
+        return mHardwareLayerSwipe;
+    }
+
+    /**
+     * 设置是否提前创建{@link SwipeMenuProvider}的菜单,默认不创建.
+     * 按下的时候在主线程空闲时给手指下面和相邻的Item提前创建菜单,开始侧滑的时候不需要inflate.
+     *
+     * @param prefetch true 提前创建.
+     */
+    public void setMenuPrefetch(boolean prefetch) {
+        mMenuPrefetch = prefetch;
+    }
+
+    public boolean isMenuPrefetch() {
+        return mMenuPrefetch;
+    }
+
+    /**
+     * 即将开始侧滑的时候给{@link SwipeMenuProvider}添加菜单.
+     */
+    private void ensureMenu(RecyclerView.ViewHolder holder) {
+        if (holder instanceof SwipeMenuProvider
+                && mMenuInflater.ensureMenu((SwipeMenuProvider) holder, mSwipeType == SWIPE_ITEM_TYPE_DEFAULT)) {
+            updateMenuClip(holder);
+        }
+    }
+
+    private void prefetchMenus(MotionEvent event) {
+        final View child = findChildView(event);
+        if (child == null) {
+            return;
+        }
+        final int index = mRecyclerView.indexOfChild(child);
+        // 先加入的相邻的Item在数量超过的时候先被丢掉.
+        prefetchMenu(index - 1);
+        prefetchMenu(index + 1);
+        prefetchMenu(index);
+    }
+
+    private void prefetchMenu(int childIndex) {
+        if (childIndex < 0 || childIndex >= mRecyclerView.getChildCount()) {
+            return;
+        }
+        final RecyclerView.ViewHolder holder = mRecyclerView.getChildViewHolder(mRecyclerView.getChildAt(childIndex));
+        if (holder instanceof SwipeMenuProvider) {
+            mMenuInflater.prefetch((SwipeMenuProvider) holder);
+        }
+    }
+
+    private void promoteLayer(RecyclerView.ViewHolder holder) {
+        if (!mHardwareLayerSwipe) {
+            return;
+        }
+        final View view = getItemFrontView(holder);
+        // 已经设置过,或者使用者自己设置了layer的不处理.
+        if (view == null || view.getLayerType() != View.LAYER_TYPE_NONE) {
+            return;
+        }
+        view.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+        mLayerViews.add(view);
+    }
+
+    private void releaseLayer(View view) {
+        if (view != null && mLayerViews.remove(view)) {
+            view.setLayerType(View.LAYER_TYPE_NONE, null);
+        }
+    }
+
+    /**
+     * @return true Adapter有stable id,打开的状态不依赖ViewHolder,数据变化的时候不需要先关闭打开的Item.
+     */
+    boolean hasStableOpenState() {
+        if (mRecyclerView == null) {
+            return false;
+        }
+        final RecyclerView.Adapter adapter = mRecyclerView.getAdapter();
+        return adapter != null && adapter.hasStableIds();
+    }
+
+    /**
+     * Item显示的时候调用,根据stable id恢复或者清除needSwipeLayout()的平移,没有动画.
+     * 显示在屏幕上的ViewHolder重新绑定的时候stable id不会变,不需要在Adapter中处理,
+     * Adapter重写带payloads的onBindViewHolder也不需要调用super.
+     *
+     * @param holder 绑定数据或者显示的ViewHolder.
+     */
+    void applyOpenState(RecyclerView.ViewHolder holder) {
+        if (holder == null || holder == mSelected || !hasStableOpenState()) {
+            return;
+        }
+        final View front = getItemFrontView(holder);
+        if (front == null) {
+            return;
+        }
+        final long key = holder.getItemId();
+        if (mOpenStates.contains(key)) {
+            // 新的ViewHolder没有经过select(),露出之前先添加菜单.
+            ensureMenu(holder);
+            front.setTranslationX(mOpenStates.getOffset(key, 0));
+            updateMenuClip(holder);
+            if (!mMultiOpen) {
+                mPreOpened = holder;
+            }
+            return;
+        }
+        if (holder == mPreOpened) {
+            // 复用之后绑定了其他的数据.
+            mPreOpened = null;
+        }
+        if (front.getTranslationX() != 0) {
+            endRecoverAnimation(holder, false);
+            if (mPendingCleanup.remove(holder.itemView)) {
+                mCallback.clearView(mRecyclerView, holder);
+            }
+            front.setTranslationX(0);
+        }
+        updateMenuClip(holder);
+    }
+
     private boolean hitTest(View child, float x, float y, float left, float top, RecyclerView.ViewHolder vh) {
         return x >= left
                 && x <= left + child.getWidth()
@@ -521,11 +1086,19 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
             mMaxSwipeVelocity = resources
                     .getDimension(android.support.v7.recyclerview.R.dimen.item_touch_helper_swipe_escape_max_velocity);
             setupCallbacks();
+            if (mMetrics != null) {
+                mMetrics.attach(mRecyclerView);
+            }
             mRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
                 @Override
                 public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
                     super.onScrollStateChanged(recyclerView, newState);
-                    if (newState == RecyclerView.SCROLL_STATE_DRAGGING && mPreOpened != null) {
+                    if (newState != RecyclerView.SCROLL_STATE_DRAGGING || !mCloseOnScroll) {
+                        return;
+                    }
+                    if (mMultiOpen) {
+                        recoverAllOpened(-1, null);
+                    } else if (mPreOpened != null) {
                         recoveryOpenedPreItem(mPreOpened);
                     }
                 }
@@ -537,26 +1110,22 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
     /**
      * 判断当前点击的位置是否为view并且该View实现了OnClickListener事件
      *
+     * @param viewHolder 打开的Item
      * @param x
      * @param y
      */
-    private void doChildClickEvent(float x, float y) {
-        RecyclerView.ViewHolder viewHolder;
-        if (null == mSelected && null == mPreOpened) {
-            return;
-        }
-        if (null != mPreOpened) {
-            viewHolder = mPreOpened;
-        } else {
-            viewHolder = mSelected;
-        }
+    private void doChildClickEvent(RecyclerView.ViewHolder viewHolder, float x, float y) {
         View consumeEventView = viewHolder.itemView;
         if (consumeEventView instanceof ViewGroup) {
             consumeEventView = findConsumeView((ViewGroup) consumeEventView, x, y);
         }
         if (consumeEventView != null) {
-            Log.e("WANG", "WeSwipeHelper.doChildClickEvent");
-            consumeEventView.performClick();
+            mTracer.beginSection(WeSwipeTracer.SECTION_CLICK);
+            try {
+                consumeEventView.performClick();
+            } finally {
+                mTracer.endSection();
+            }
             mClick = false;
             recoveryOpenedPreItem(viewHolder);
         }
@@ -601,8 +1170,7 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
      * @return
      */
     private boolean isInBoundsClickable(float x, float y, View child) {
-        int[] location = new int[2];
-        Rect screen = getViewRectForScreen(child, location);
+        Rect screen = getViewRectForScreen(child);
         if (screen.contains((int) x, (int) y)
                 && child.isClickable()
                 && child.getVisibility() == View.VISIBLE) {
@@ -611,9 +1179,14 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
         return false;
     }
 
-    private Rect getViewRectForScreen(View view, int[] location) {
+    /**
+     * 返回的Rect是复用的,只在下一次调用之前有效.
+     */
+    private Rect getViewRectForScreen(View view) {
+        final int[] location = mTmpLocation;
         view.getLocationOnScreen(location);
-        return new Rect(location[0], location[1], location[0] + view.getWidth(), location[1] + view.getHeight());
+        mTmpScreenRect.set(location[0], location[1], location[0] + view.getWidth(), location[1] + view.getHeight());
+        return mTmpScreenRect;
     }
 
     /**
@@ -630,12 +1203,87 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
         return null;
     }
 
+    private void updateAttachedMenus() {
+        if (mRecyclerView == null) {
+            return;
+        }
+        for (int i = mRecyclerView.getChildCount() - 1; i >= 0; i--) {
+            updateMenuClip(mRecyclerView.getChildViewHolder(mRecyclerView.getChildAt(i)));
+        }
+    }
+
+    /**
+     * 不再是{@link #SWIPE_ITEM_TYPE_DEFAULT}类型的时候,显示并且不再裁剪屏幕上的菜单.
+     */
+    private void resetAttachedMenus() {
+        if (mRecyclerView == null) {
+            return;
+        }
+        for (int i = mRecyclerView.getChildCount() - 1; i >= 0; i--) {
+            final RecyclerView.ViewHolder holder = mRecyclerView.getChildViewHolder(mRecyclerView.getChildAt(i));
+            final View menu = holder instanceof SwipeMenuCallBack ? ((SwipeMenuCallBack) holder).getMenuView() : null;
+            if (menu != null) {
+                menu.setVisibility(View.VISIBLE);
+                ViewCompat.setClipBounds(menu, null);
+            }
+        }
+    }
+
+    /**
+     * 根据needSwipeLayout()的平移更新{@link SwipeMenuCallBack#getMenuView()}:没有平移的时候隐藏,
+     * 有平移的时候只绘制露出来的部分.只有{@link #SWIPE_ITEM_TYPE_DEFAULT}类型的菜单在下面,需要处理.
+     */
+    private void updateMenuClip(RecyclerView.ViewHolder holder) {
+        if (mSwipeType != SWIPE_ITEM_TYPE_DEFAULT || !(holder instanceof SwipeMenuCallBack)) {
+            return;
+        }
+        final View menu = ((SwipeMenuCallBack) holder).getMenuView();
+        final View front = ((SwipeMenuCallBack) holder).needSwipeLayout();
+        if (menu == null || front == null) {
+            return;
+        }
+        final float translationX = front.getTranslationX();
+        if (translationX == 0) {
+            // 用INVISIBLE,不影响菜单的测量,getSwipeWidth()仍然可以使用菜单的宽度.
+            if (menu.getVisibility() != View.INVISIBLE) {
+                menu.setVisibility(View.INVISIBLE);
+            }
+            return;
+        }
+        if (menu.getVisibility() != View.VISIBLE) {
+            menu.setVisibility(View.VISIBLE);
+        }
+        if (menu.isLayoutRequested()) {
+            // 刚添加的菜单还没有layout,位置和宽度都不对,先不裁剪.
+            ViewCompat.setClipBounds(menu, null);
+            return;
+        }
+        // 露出来的区域,和菜单在同一个父View的坐标系中.
+        final int revealLeft, revealRight;
+        if (translationX < 0) {
+            revealLeft = (int) Math.floor(front.getRight() + translationX);
+            revealRight = front.getRight();
+        } else {
+            revealLeft = front.getLeft();
+            revealRight = (int) Math.ceil(front.getLeft() + translationX);
+        }
+        final int left = Math.max(0, revealLeft - menu.getLeft());
+        final int right = Math.min(menu.getWidth(), revealRight - menu.getLeft());
+        mTmpClipRect.set(left, 0, Math.max(left, right), menu.getHeight());
+        ViewCompat.setClipBounds(menu, mTmpClipRect);
+    }
+
     private void setupCallbacks() {
         ViewConfiguration vc = ViewConfiguration.get(mRecyclerView.getContext());
         mSlop = vc.getScaledTouchSlop();
         mRecyclerView.addItemDecoration(this);
         mRecyclerView.addOnItemTouchListener(mOnItemTouchListener);
         mRecyclerView.addOnChildAttachStateChangeListener(this);
+        mAnimationEngine.attach(mRecyclerView);
+        mElevationTracker.attach(mRecyclerView);
+        mCallback.mElevationTracker = mElevationTracker;
+        mMenuInflater.attach(mRecyclerView);
+        updateAttachedMenus();
     }
 
     private void destroyCallbacks() {
@@ -649,6 +1297,25 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
             mCallback.clearView(mRecyclerView, recoverAnimation.mViewHolder);
         }
         mRecoverAnimations.clear();
+        mRecyclerView.removeCallbacks(mDispatchSwipeRunnable);
+        mSwipeDispatchScheduled = false;
+        mWaitingItemAnimator = null;
+        releasePendingSwipes();
+        mAnimationEngine.attach(null);
+        mMenuInflater.attach(null);
+        // 不再有手势接管的Item,等待的回调直接执行.
+        final RecoverCallback grabbed = mGrabbedCallback;
+        mGrabbedHolder = null;
+        mGrabbedCallback = null;
+        if (null != grabbed) {
+            grabbed.recoverEnd();
+        }
+        mElevationTracker.attach(null);
+        mCallback.mElevationTracker = null;
+        for (int i = mLayerViews.size() - 1; i >= 0; i--) {
+            mLayerViews.get(i).setLayerType(View.LAYER_TYPE_NONE, null);
+        }
+        mLayerViews.clear();
         mOverdrawChild = null;
         mOverdrawChildPosition = -1;
         releaseVelocityTracker();
@@ -677,6 +1344,20 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
         }
         mCallback.onDrawOver(c, parent, mSelected,
                 mRecoverAnimations, mActionState, dx, dy);
+        boolean hasRunningAnimation = false;
+        for (int i = mRecoverAnimations.size() - 1; i >= 0; i--) {
+            final RecoverAnimation anim = mRecoverAnimations.get(i);
+            if (anim.mEnded && !anim.mIsPendingCleanup) {
+                mRecoverAnimations.remove(i);
+                anim.mInList = false;
+                recycleRecoverAnimation(anim);
+            } else if (!anim.mEnded) {
+                hasRunningAnimation = true;
+            }
+        }
+        if (hasRunningAnimation && !mTranslationOnly) {
+            parent.invalidate();
+        }
     }
 
     @Override
@@ -689,8 +1370,21 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
             dx = mTmpPosition[0];
             dy = mTmpPosition[1];
         }
+        mTracer.beginSection(WeSwipeTracer.SECTION_DRAW);
         mCallback.onDraw(c, parent, mSelected,
                 mRecoverAnimations, mActionState, dx, dy);
+        mTracer.endSection();
+        if (mSwipeType == SWIPE_ITEM_TYPE_DEFAULT) {
+            if (mSelected != null) {
+                updateMenuClip(mSelected);
+            }
+            for (int i = mRecoverAnimations.size() - 1; i >= 0; i--) {
+                updateMenuClip(mRecoverAnimations.get(i).mViewHolder);
+            }
+        }
+        if (mMetrics != null && mSelected != null && (dx != 0 || dy != 0)) {
+            mMetrics.onTranslated();
+        }
     }
 
     private static float getSwipeWidth(RecyclerView.ViewHolder viewHolder) {
@@ -711,63 +1405,476 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
         if (!(viewHolder instanceof SwipeLayoutTypeCallBack)) {
             return null;
         }
-        return ((SwipeLayoutTypeCallBack) viewHolder).onScreenView();
+        return ((SwipeLayoutTypeCallBack) viewHolder).onScreenView();
+    }
+
+    public void recoverPre(RecoverCallback callback, long duration) {
+        if (mMultiOpen) {
+            recoverAllOpened(duration, callback);
+        } else if (null != mPreOpened) {
+            mTracer.event("recoverPre", mPreOpened.getAdapterPosition());
+            recoveryOpenedPreItem(mPreOpened, duration, callback);
+        } else {
+            // 打开的Item不在屏幕上,清除状态就可以了.
+            mOpenStates.clear();
+            if (null != callback) {
+                callback.recoverEnd();
+            }
+        }
+    }
+
+    public boolean haveRecoverItem() {
+        return !mOpenStates.isEmpty();
+    }
+
+    /**
+     * 没有stable id的时候,关闭adapter position在[positionStart, positionStart + itemCount)中打开的Item.
+     * 正在滑动的Item不处理.
+     *
+     * @param animate true 播放关闭动画,false 在当前帧直接回到原位.
+     * @return 范围中是否有打开的Item.
+     */
+    boolean closeOpenedInRange(int positionStart, int itemCount, boolean animate) {
+        return closeOpenedInRange(positionStart, itemCount, animate ? CLOSE_ANIMATE : CLOSE_SNAP);
+    }
+
+    private boolean closeOpenedInRange(int positionStart, int itemCount, int closeMode) {
+        if (mOpenStates.isEmpty() || itemCount <= 0 || mRecyclerView == null || hasStableOpenState()) {
+            return false;
+        }
+        final long end = (long) positionStart + itemCount;
+        if (mMultiOpen) {
+            for (int i = mRecyclerView.getChildCount() - 1; i >= 0; i--) {
+                final RecyclerView.ViewHolder holder = mRecyclerView.getChildViewHolder(mRecyclerView.getChildAt(i));
+                if (holder == null || holder == mSelected) {
+                    continue;
+                }
+                final long key = openKeyOf(holder);
+                if (key >= positionStart && key < end && mOpenStates.contains(key)) {
+                    closeOpened(holder, closeMode);
+                }
+            }
+        }
+        final boolean hit = mOpenStates.removeRange(positionStart, end) > 0;
+        if (hit && !mMultiOpen && mPreOpened != null && mPreOpened != mSelected) {
+            closeOpened(mPreOpened, closeMode);
+        }
+        if (hit && closeMode != CLOSE_ANIMATE && mOpenStates.isEmpty()) {
+            mSwipeState.onClosed();
+        }
+        return hit;
+    }
+
+    /**
+     * 没有stable id的时候,插入Item之后移动后面打开的Item的position.
+     */
+    void onOpenedRangeInserted(int positionStart, int itemCount) {
+        if (!hasStableOpenState()) {
+            mOpenStates.offsetKeys(positionStart, itemCount);
+        }
+    }
+
+    /**
+     * 没有stable id的时候,删除的Item如果是打开的就关闭,后面打开的Item的position往前移.
+     * 使用{@link WeSwipeItemAnimator}的时候删除的Item保持当前的平移,由删除动画处理.
+     */
+    void onOpenedRangeRemoved(int positionStart, int itemCount, boolean animate) {
+        if (hasStableOpenState()) {
+            if (hasSwipeItemAnimator()) {
+                releaseStableOpenedInRange(positionStart, itemCount);
+            }
+            return;
+        }
+        closeOpenedInRange(positionStart, itemCount,
+                hasSwipeItemAnimator() ? CLOSE_RELEASE : animate ? CLOSE_ANIMATE : CLOSE_SNAP);
+        mOpenStates.offsetKeys((long) positionStart + itemCount, -itemCount);
+    }
+
+    /**
+     * 没有stable id的时候,移动的Item如果是打开的就关闭,中间打开的Item的position跟着移动.
+     */
+    void onOpenedItemMoved(int fromPosition, int toPosition, boolean animate) {
+        if (hasStableOpenState() || fromPosition == toPosition) {
+            return;
+        }
+        closeOpenedInRange(fromPosition, 1, animate);
+        mOpenStates.offsetKeys(fromPosition + 1, -1);
+        mOpenStates.offsetKeys(toPosition, 1);
+    }
+
+    /**
+     * 有stable id的时候,删除屏幕上打开的Item之前清除它的状态,保留平移交给{@link WeSwipeItemAnimator}.
+     * 需要在分发删除之前调用,这时ViewHolder的adapter position还是删除之前的.
+     */
+    private void releaseStableOpenedInRange(int positionStart, int itemCount) {
+        final long end = (long) positionStart + itemCount;
+        for (int i = mRecyclerView.getChildCount() - 1; i >= 0; i--) {
+            final RecyclerView.ViewHolder holder = mRecyclerView.getChildViewHolder(mRecyclerView.getChildAt(i));
+            if (holder == null || holder == mSelected) {
+                continue;
+            }
+            final int position = holder.getAdapterPosition();
+            if (position >= positionStart && position < end && mOpenStates.remove(holder.getItemId())) {
+                closeOpened(holder, CLOSE_RELEASE);
+            }
+        }
+        if (mOpenStates.isEmpty()) {
+            mSwipeState.onClosed();
+        }
+    }
+
+    /**
+     * @return true RecyclerView使用的是{@link WeSwipeItemAnimator},删除打开的Item之前不需要先关闭.
+     */
+    boolean hasSwipeItemAnimator() {
+        return mRecyclerView != null && mRecyclerView.getItemAnimator() instanceof WeSwipeItemAnimator;
+    }
+
+    private void closeOpened(RecyclerView.ViewHolder holder, int closeMode) {
+        if (closeMode == CLOSE_ANIMATE) {
+            recoveryOpenedPreItem(holder);
+            return;
+        }
+        for (int i = mFrontCloseAnimations.size() - 1; i >= 0; i--) {
+            final FrontCloseAnimation anim = mFrontCloseAnimations.get(i);
+            if (anim.mViewHolder == holder) {
+                mAnimationEngine.end(anim);
+            }
+        }
+        endRecoverAnimation(holder, true);
+        if (mPendingCleanup.remove(holder.itemView)) {
+            mCallback.clearView(mRecyclerView, holder);
+        }
+        final View front = getItemFrontView(holder);
+        if (front != null && closeMode == CLOSE_SNAP) {
+            front.setTranslationX(0);
+            updateMenuClip(holder);
+        }
+        if (holder == mPreOpened) {
+            mPreOpened = null;
+        }
+    }
+
+    private void recoveryOpenedPreItem(RecyclerView.ViewHolder viewHolder) {
+        recoveryOpenedPreItem(viewHolder, -1, null);
+    }
+
+    /**
+     * 关闭一个打开的Item
+     *
+     * @param viewHolder 要关闭的Item的ViewHolder
+     */
+    private void recoveryOpenedPreItem(RecyclerView.ViewHolder viewHolder, long duration, final RecoverCallback callback) {
+        final View view = viewHolder == null ? null : getItemFrontView(viewHolder);
+        if (view == null) {
+            // 没有可以关闭的View,直接清除状态,回调不能丢.
+            if (viewHolder != null) {
+                mOpenStates.remove(openKeyOf(viewHolder));
+                if (viewHolder == mPreOpened) {
+                    mPreOpened = null;
+                }
+            }
+            if (null != callback) {
+                callback.recoverEnd();
+            }
+            return;
+        }
+        final FrontCloseAnimation closing = findFrontCloseAnimation(viewHolder);
+        if (closing != null) {
+            // 已经在关闭了,不再开始一个动画,关闭之后一起回调.
+            closing.mCallback = chain(closing.mCallback, callback);
+            return;
+        }
+        mTracer.beginSection(WeSwipeTracer.SECTION_RECOVER);
+        // 还在打开的过程中的话,从当前的速度开始关闭.
+        final float velocityX = getSettleVelocityX(viewHolder);
+        mSwipeState.onCloseStarted();
+        if (mMetrics != null) {
+            mMetrics.onSettleStart();
+        }
+        //在每次接收到新的点击事件的时候都需要将上一个选择的ItemVIew从mRecoverAnimations中删除。
+        endRecoverAnimation(viewHolder, true);
+        if (mPendingCleanup.remove(viewHolder.itemView)) {
+            mCallback.clearView(mRecyclerView, viewHolder);
+        }
+        final int size = mFrontClosePool.size();
+        final FrontCloseAnimation anim = size > 0 ? mFrontClosePool.remove(size - 1) : new FrontCloseAnimation();
+        anim.init(viewHolder, view, openKeyOf(viewHolder), callback);
+        mFrontCloseAnimations.add(anim);
+        promoteLayer(viewHolder);
+        startSettle(anim, -anim.mStartX, velocityX,
+                -1 == duration ? mCallback.getRecoveryAnimationDuration() : duration);
+        mTracer.endSection();
+    }
+
+    /**
+     * 关闭所有打开的Item,屏幕上的Item在同一个动画中关闭,不在屏幕上的直接清除状态.
+     */
+    private void recoverAllOpened(long duration, final RecoverCallback callback) {
+        // 上一次的还没有结束,直接结束它.
+        mAnimationEngine.end(mRecoverAllAnimation);
+        if (mOpenStates.isEmpty()) {
+            if (null != callback) {
+                callback.recoverEnd();
+            }
+            return;
+        }
+        mTracer.beginSection(WeSwipeTracer.SECTION_RECOVER);
+        final RecoverAllAnimation animation = mRecoverAllAnimation;
+        final List<View> views = animation.mViews;
+        animation.clear();
+        for (int i = mRecyclerView.getChildCount() - 1; i >= 0; i--) {
+            final RecyclerView.ViewHolder holder = mRecyclerView.getChildViewHolder(mRecyclerView.getChildAt(i));
+            if (holder == null || holder == mSelected || !mOpenStates.contains(openKeyOf(holder))) {
+                continue;
+            }
+            final View view = getItemFrontView(holder);
+            if (view == null) {
+                continue;
+            }
+            endRecoverAnimation(holder, true);
+            if (mPendingCleanup.remove(holder.itemView)) {
+                mCallback.clearView(mRecyclerView, holder);
+            }
+            animation.add(holder, view);
+            promoteLayer(holder);
+        }
+        mOpenStates.clear();
+        if (views.isEmpty()) {
+            // 打开的Item都不在屏幕上.
+            mTracer.endSection();
+            if (null != callback) {
+                callback.recoverEnd();
+            }
+            return;
+        }
+        animation.mCallback = callback;
+        mSwipeState.onCloseStarted();
+        if (mMetrics != null) {
+            mMetrics.onSettleStart();
+        }
+        startSettle(animation, animation.maxDistance(), 0f,
+                -1 == duration ? mCallback.getRecoveryAnimationDuration() : duration);
+        mTracer.endSection();
+    }
+
+    /**
+     * 开始恢复动画.开启了弹簧动画的时候按照距离和速度结束,否则使用固定的时长.
+     *
+     * @param distance  动画移动的像素.
+     * @param velocityX 开始时的速度,像素/秒,和distance同号表示朝向终点.
+     */
+    private void startSettle(SwipeAnimationEngine.Target target, float distance, float velocityX, long duration) {
+        if (!mSpringSettle) {
+            mAnimationEngine.start(target, duration);
+        } else if (Math.abs(distance) < SPRING_THRESHOLD_PX) {
+            mAnimationEngine.start(target, 0);
+        } else {
+            mAnimationEngine.startSpring(target, velocityX / distance, SPRING_THRESHOLD_PX / Math.abs(distance));
+        }
+    }
+
+    /**
+     * @return 松手时的水平速度,像素/秒.
+     */
+    private float getReleaseVelocityX() {
+        if (mVelocityTracker == null || mActivePointerId <= -1) {
+            return 0f;
+        }
+        mVelocityTracker.computeCurrentVelocity(PIXELS_PER_SECOND,
+                mCallback.getSwipeVelocityThreshold(mMaxSwipeVelocity));
+        return mVelocityTracker.getXVelocity(mActivePointerId);
+    }
+
+    /**
+     * @return 正在执行的恢复动画当前的水平速度,像素/秒;没有的话返回0.
+     */
+    private float getSettleVelocityX(RecyclerView.ViewHolder viewHolder) {
+        for (int i = mRecoverAnimations.size() - 1; i >= 0; i--) {
+            final RecoverAnimation anim = mRecoverAnimations.get(i);
+            if (anim.mViewHolder == viewHolder && !anim.mEnded) {
+                return mAnimationEngine.getVelocity(anim) * (anim.mTargetX - anim.mStartDx);
+            }
+        }
+        return 0f;
+    }
+
+    /**
+     * @return 依次调用first和second的回调,其中一个为null的时候返回另一个.
+     */
+    private static RecoverCallback chain(final RecoverCallback first, final RecoverCallback second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return new RecoverCallback() {
+            @Override
+            public void recoverEnd() {
+                first.recoverEnd();
+                second.recoverEnd();
+            }
+        };
+    }
+
+    private FrontCloseAnimation findFrontCloseAnimation(RecyclerView.ViewHolder viewHolder) {
+        for (int i = mFrontCloseAnimations.size() - 1; i >= 0; i--) {
+            final FrontCloseAnimation anim = mFrontCloseAnimations.get(i);
+            if (anim.mViewHolder == viewHolder) {
+                return anim;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 关闭单个打开的Item,对应的状态在结束的时候清除.
+     */
+    private class FrontCloseAnimation implements SwipeAnimationEngine.Target {
+
+        RecyclerView.ViewHolder mViewHolder;
+
+        private View mView;
+
+        float mStartX;
+
+        private long mOpenKey;
+
+        RecoverCallback mCallback;
+
+        void init(RecyclerView.ViewHolder viewHolder, View view, long openKey, RecoverCallback callback) {
+            mViewHolder = viewHolder;
+            mView = view;
+            mStartX = view.getTranslationX();
+            mOpenKey = openKey;
+            mCallback = callback;
+        }
+
+        @Override
+        public void onAnimationUpdate(float fraction) {
+            mView.setTranslationX(mStartX * (1f - fraction));
+            updateMenuClip(mViewHolder);
+        }
+
+        @Override
+        public void onAnimationEnd(boolean canceled) {
+            final RecoverCallback callback = mCallback;
+            final RecyclerView.ViewHolder holder = mViewHolder;
+            mFrontCloseAnimations.remove(this);
+            releaseLayer(mView);
+            updateMenuClip(mViewHolder);
+            mViewHolder = null;
+            mView = null;
+            mCallback = null;
+            mFrontClosePool.add(this);
+            if (mMetrics != null) {
+                mMetrics.onSettleEnd();
+            }
+            if (canceled) {
+                // 被手指接管,还没有关闭.
+                handOverRecoverCallback(holder, callback);
+                return;
+            }
+            mOpenStates.remove(mOpenKey);
+            if (!mMultiOpen) {
+                mPreOpened = null;
+            }
+            mSwipeState.onClosed();
+            if (null != callback) {
+                callback.recoverEnd();
+            }
+        }
     }
 
-    public void recoverPre(RecoverCallback callback, long duration) {
-        if (null != mPreOpened) {
-            Log.e("WANG", "WeSwipeHelper.recoverPre" + mPreOpened.getAdapterPosition() + "    " + mPreOpened.getLayoutPosition() + "    " + mPreOpened.getOldPosition());
-            recoveryOpenedPreItem(mPreOpened, duration, callback);
+    /**
+     * 同时关闭屏幕上所有打开的Item,只有一个实例.
+     */
+    private class RecoverAllAnimation implements SwipeAnimationEngine.Target {
+
+        final List<View> mViews = new ArrayList<>();
+
+        private final List<RecyclerView.ViewHolder> mHolders = new ArrayList<>();
+
+        private float[] mStarts = new float[8];
+
+        RecoverCallback mCallback;
+
+        void clear() {
+            mViews.clear();
+            mHolders.clear();
         }
-    }
 
-    public boolean haveRecoverItem() {
-        return mPreOpened != null;
-    }
+        void add(RecyclerView.ViewHolder holder, View view) {
+            final int size = mViews.size();
+            if (mStarts.length == size) {
+                float[] starts = new float[size * 2];
+                System.arraycopy(mStarts, 0, starts, 0, size);
+                mStarts = starts;
+            }
+            mStarts[size] = view.getTranslationX();
+            mViews.add(view);
+            mHolders.add(holder);
+        }
 
-    private void recoveryOpenedPreItem(RecyclerView.ViewHolder viewHolder) {
-        recoveryOpenedPreItem(viewHolder, -1, null);
-    }
+        boolean contains(View view) {
+            return mViews.contains(view);
+        }
 
-    /**
-     * 关闭一个打开的Item
-     *
-     * @param viewHolder 要关闭的Item的ViewHolder
-     */
-    private void recoveryOpenedPreItem(RecyclerView.ViewHolder viewHolder, long duration, final RecoverCallback callback) {
-        if (viewHolder == null) {
-            return;
+        /**
+         * 不再关闭这个View,停在当前的平移.
+         */
+        boolean remove(View view) {
+            final int index = mViews.indexOf(view);
+            if (index < 0) {
+                return false;
+            }
+            final int size = mViews.size();
+            System.arraycopy(mStarts, index + 1, mStarts, index, size - index - 1);
+            mViews.remove(index);
+            mHolders.remove(index);
+            if (mViews.isEmpty()) {
+                mAnimationEngine.end(this);
+            }
+            return true;
         }
-        final View view = getItemFrontView(viewHolder);
-        if (view == null) {
-            return;
+
+        float maxDistance() {
+            float max = 0;
+            for (int i = mViews.size() - 1; i >= 0; i--) {
+                max = Math.max(max, Math.abs(mStarts[i]));
+            }
+            return max;
         }
-        float translationX = view.getTranslationX();
-        ObjectAnimator objectAnimator = ObjectAnimator.ofFloat(view, "translationX", translationX, 0f);
-        objectAnimator.clone();
-        objectAnimator.setDuration(-1 == duration ? mCallback.getRecoveryAnimationDuration() : duration);
-        objectAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationStart(Animator animation) {
-                super.onAnimationStart(animation);
-                //在每次接收到新的点击事件的时候都需要将上一个选择的ItemVIew从mRecoverAnimations中删除。
-                endRecoverAnimation(mPreOpened, true);
-                if (mPendingCleanup.remove(mPreOpened)) {
-                    mCallback.clearView(mRecyclerView, mPreOpened);
-                }
+
+        @Override
+        public void onAnimationUpdate(float fraction) {
+            for (int i = mViews.size() - 1; i >= 0; i--) {
+                mViews.get(i).setTranslationX(mStarts[i] * (1f - fraction));
+                updateMenuClip(mHolders.get(i));
             }
+        }
 
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                super.onAnimationEnd(animation);
-                mPreOpened = null;
-                mCloseAnimaIsFinish = true;
-                if (null != callback) {
-                    callback.recoverEnd();
-                }
+        @Override
+        public void onAnimationEnd(boolean canceled) {
+            final RecoverCallback callback = mCallback;
+            mCallback = null;
+            for (int i = mViews.size() - 1; i >= 0; i--) {
+                releaseLayer(mViews.get(i));
+                updateMenuClip(mHolders.get(i));
+            }
+            clear();
+            if (mMetrics != null) {
+                mMetrics.onSettleEnd();
+            }
+            if (mSelected == null) {
+                // 被接管的Item还在手指下面的话,不是关闭的状态.
+                mSwipeState.onClosed();
             }
-        });
-        objectAnimator.start();
+            if (null != callback) {
+                callback.recoverEnd();
+            }
+        }
     }
 
     /**
@@ -781,13 +1888,12 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
         if (selected == mSelected && actionState == mActionState) {
             return;
         }
+        mTracer.beginSection(WeSwipeTracer.SECTION_SELECT);
         mDragScrollStartTimeInMs = Long.MIN_VALUE;
         final int prevActionState = mActionState;
         // prevent duplicate animations
         endRecoverAnimation(selected, true);
         mActionState = actionState;
-        int actionStateMask = (1 << (DIRECTION_FLAG_COUNT + DIRECTION_FLAG_COUNT * actionState))
-                - 1;
         boolean preventLayout = false;
 
         if (mSelected != null) {
@@ -800,6 +1906,7 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
                     swipeDir = prevActionState == ACTION_STATE_DRAG ? 0
                             : swipeIfNecessary(prevSelected);
                 }
+                final float releaseVelocityX = prevActionState == ACTION_STATE_SWIPE ? getReleaseVelocityX() : 0f;
                 releaseVelocityTracker();
                 // find where we should animate to
                 final float targetTranslateX, targetTranslateY;
@@ -835,49 +1942,23 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
                 getSelectedDxDy(mTmpPosition);
                 final float currentTranslateX = mTmpPosition[0];
                 final float currentTranslateY = mTmpPosition[1];
-                final WeSwipeHelper.RecoverAnimation rv = new WeSwipeHelper.RecoverAnimation(prevSelected, animationType,
+                final WeSwipeHelper.RecoverAnimation rv = obtainRecoverAnimation(prevSelected, animationType,
                         prevActionState, currentTranslateX, currentTranslateY,
-                        targetTranslateX, targetTranslateY) {
-                    @Override
-                    public void onAnimationEnd(Animator animation) {
-                        super.onAnimationEnd(animation);
-                        if (this.mOverridden) {
-                            return;
-                        }
-                        if (swipeDir <= 0) {
-                            // this is a drag or failed swipe. recover immediately.
-                            mPreOpened = null;
-                            mCallback.clearView(mRecyclerView, prevSelected);
-                            // full cleanup will happen on onDrawOver.
-                        } else {
-                            //successful sliding.
-                            mPreOpened = prevSelected;
-                            Log.e("WANG", "WeSwipeHelper.select" + mPreOpened.getAdapterPosition());
-                            // wait until remove animation is complete.
-                            mPendingCleanup.add(prevSelected.itemView);
-                            mIsPendingCleanup = true;
-                            if (swipeDir > 0) {
-                                // Animation might be ended by other animators during a layout.
-                                // We defer callback to avoid editing adapter during a layout.
-                                postDispatchSwipe(this, swipeDir);
-                            }
-                        }
-                        // removed from the list after it is drawn for the last time
-                        if (mOverdrawChild == prevSelected.itemView) {
-                            removeChildDrawingOrderCallbackIfNecessary(prevSelected.itemView);
-                        }
-                    }
-
-                    @Override
-                    public void onAnimationStart(Animator animation) {
-                        super.onAnimationStart(animation);
-                    }
-                };
+                        targetTranslateX, targetTranslateY, swipeDir);
                 final long duration = mCallback.getAnimationDuration(mRecyclerView, animationType,
                         targetTranslateX - currentTranslateX, targetTranslateY - currentTranslateY);
                 rv.setDuration(duration);
+                rv.mVelocityX = releaseVelocityX;
+                rv.mMenuOpen = needOpen;
                 mRecoverAnimations.add(rv);
+                rv.mInList = true;
                 rv.start();
+                if (swipeDir > 0) {
+                    mSwipeState.onOpenStarted();
+                }
+                if (mMetrics != null) {
+                    mMetrics.onSettleStart();
+                }
                 preventLayout = true;
             } else {
                 removeChildDrawingOrderCallbackIfNecessary(prevSelected.itemView);
@@ -886,12 +1967,16 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
             mSelected = null;
         }
         if (selected != null) {
-            mSelectedFlags =
-                    (mCallback.getAbsoluteMovementFlags(mRecyclerView, selected) & actionStateMask)
-                            >> (mActionState * DIRECTION_FLAG_COUNT);
+            mSelectedFlags = SwipeDirections.flagsForState(
+                    mCallback.getAbsoluteMovementFlags(mRecyclerView, selected), mActionState);
             mSelectedStartX = selected.itemView.getLeft();
             mSelectedStartY = selected.itemView.getTop();
             mSelected = selected;
+            if (actionState == ACTION_STATE_SWIPE) {
+                mSwipeState.onSwipeStarted();
+                ensureMenu(selected);
+                promoteLayer(selected);
+            }
 
             if (actionState == ACTION_STATE_DRAG) {
                 mSelected.itemView.performHapticFeedback(HapticFeedbackConstants.LONG_PRESS);
@@ -906,39 +1991,208 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
         }
         mCallback.onSelectedChanged(mSelected, mActionState);
         mRecyclerView.invalidate();
+        mTracer.endSection();
     }
 
     void postDispatchSwipe(final WeSwipeHelper.RecoverAnimation anim, final int swipeDir) {
-        // wait until animations are complete.
-        mRecyclerView.post(new Runnable() {
-            @Override
-            public void run() {
-                if (mRecyclerView != null && mRecyclerView.isAttachedToWindow()
-                        && !anim.mOverridden
-                        && anim.mViewHolder.getAdapterPosition() != RecyclerView.NO_POSITION) {
-                    final RecyclerView.ItemAnimator animator = mRecyclerView.getItemAnimator();
-                    // if animator is running or we have other active recover animations, we try
-                    // not to call onSwiped because DefaultItemAnimator is not good at merging
-                    // animations. Instead, we wait and batch.
-                    if ((animator == null || !animator.isRunning(null))
-                            && !hasRunningRecoverAnim()) {
-                        mCallback.onSwiped(anim.mViewHolder, swipeDir);
-                    } else {
-                        mRecyclerView.post(this);
-                    }
+        if (mPendingSwipes.size() == mPendingSwipeDirs.length) {
+            int[] dirs = new int[mPendingSwipeDirs.length * 2];
+            System.arraycopy(mPendingSwipeDirs, 0, dirs, 0, mPendingSwipes.size());
+            mPendingSwipeDirs = dirs;
+        }
+        mPendingSwipeDirs[mPendingSwipes.size()] = swipeDir;
+        anim.mDispatchPending = true;
+        mPendingSwipes.add(anim);
+        maybeDispatchSwipes();
+    }
+
+    /**
+     * ItemAnimator和恢复动画都结束之后分发等待的滑动.没有结束的时候不轮询,
+     * 等最后一个恢复动画结束或者ItemAnimator回调结束的时候再检查.
+     */
+    private void maybeDispatchSwipes() {
+        if (mPendingSwipes.isEmpty() || mSwipeDispatchScheduled || mRecyclerView == null) {
+            return;
+        }
+        // if animator is running or we have other active recover animations, we try
+        // not to call onSwiped because DefaultItemAnimator is not good at merging
+        // animations. Instead, we wait and batch.
+        if (hasRunningRecoverAnim()) {
+            // onRecoverAnimationEnded()会再次检查.
+            return;
+        }
+        final RecyclerView.ItemAnimator animator = mRecyclerView.getItemAnimator();
+        if (animator != null && animator.isRunning()) {
+            if (mWaitingItemAnimator != animator) {
+                mWaitingItemAnimator = animator;
+                animator.isRunning(mItemAnimatorFinishedListener);
+            }
+            return;
+        }
+        // Animation might be ended by other animators during a layout.
+        // We defer callback to avoid editing adapter during a layout.
+        mSwipeDispatchScheduled = true;
+        mRecyclerView.post(mDispatchSwipeRunnable);
+    }
+
+    private final RecyclerView.ItemAnimator.ItemAnimatorFinishedListener mItemAnimatorFinishedListener =
+            new RecyclerView.ItemAnimator.ItemAnimatorFinishedListener() {
+                @Override
+                public void onAnimationsFinished() {
+                    mWaitingItemAnimator = null;
+                    maybeDispatchSwipes();
                 }
+            };
+
+    /**
+     * 所有等待分发的滑动共用一个Runnable.
+     */
+    private final Runnable mDispatchSwipeRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mSwipeDispatchScheduled = false;
+            if (mRecyclerView == null || !mRecyclerView.isAttachedToWindow()) {
+                releasePendingSwipes();
+                return;
             }
-        });
+            final RecyclerView.ItemAnimator animator = mRecyclerView.getItemAnimator();
+            if (hasRunningRecoverAnim() || (animator != null && animator.isRunning())) {
+                // 等待期间又开始了新的动画,继续等它们结束.
+                maybeDispatchSwipes();
+                return;
+            }
+            dispatchPendingSwipes();
+        }
+    };
+
+    /**
+     * 从缓存中取一个{@link RecoverAnimation},开始动画不需要创建对象.
+     */
+    private RecoverAnimation obtainRecoverAnimation(RecyclerView.ViewHolder viewHolder, int animationType,
+                                                    int actionState, float startDx, float startDy,
+                                                    float targetX, float targetY, int swipeDir) {
+        final int size = mRecoverAnimationPool.size();
+        final RecoverAnimation anim = size > 0 ? mRecoverAnimationPool.remove(size - 1) : new RecoverAnimation();
+        anim.init(viewHolder, animationType, actionState, startDx, startDy, targetX, targetY, swipeDir);
+        return anim;
     }
 
-    boolean hasRunningRecoverAnim() {
-        final int size = mRecoverAnimations.size();
+    /**
+     * 动画已经结束,不在{@link #mRecoverAnimations}中,也不在等待分发的时候放回缓存.
+     */
+    private void recycleRecoverAnimation(RecoverAnimation anim) {
+        if (anim.mEnded && !anim.mInList && !anim.mDispatchPending) {
+            anim.mViewHolder = null;
+            mRecoverAnimationPool.add(anim);
+        }
+    }
+
+    /**
+     * 每个{@link RecoverAnimation}结束的时候调用一次,取消也算结束.
+     */
+    void onRecoverAnimationEnd(RecoverAnimation anim) {
+        mRunningRecoverCount--;
+        if (mRunningRecoverCount == 0) {
+            maybeDispatchSwipes();
+        }
+        if (mMetrics != null) {
+            mMetrics.onSettleEnd();
+        }
+        final RecyclerView.ViewHolder holder = anim.mViewHolder;
+        releaseLayer(getItemFrontView(holder));
+        if (anim.mOverridden) {
+            return;
+        }
+        if (anim.mSwipeDir <= 0) {
+            // this is a drag or failed swipe. recover immediately.
+            if (!mMultiOpen) {
+                mPreOpened = null;
+            }
+            mOpenStates.remove(openKeyOf(holder));
+            mSwipeState.onClosed();
+            mCallback.clearView(mRecyclerView, holder);
+            // full cleanup will happen on onDrawOver.
+        } else {
+            //successful sliding.
+            if (!mMultiOpen) {
+                mOpenStates.clear();
+                mPreOpened = holder;
+            }
+            mOpenStates.put(openKeyOf(holder),
+                    Math.signum(anim.mTargetX) * getSwipeWidth(holder));
+            mSwipeState.onOpened();
+            mTracer.event("opened", holder.getAdapterPosition());
+            // wait until remove animation is complete.
+            mPendingCleanup.add(holder.itemView);
+            anim.mIsPendingCleanup = true;
+            if (anim.mSwipeDir > 0) {
+                // Animation might be ended by other animators during a layout.
+                // We defer callback to avoid editing adapter during a layout.
+                postDispatchSwipe(anim, anim.mSwipeDir);
+            }
+        }
+        // removed from the list after it is drawn for the last time
+        if (mOverdrawChild == holder.itemView) {
+            removeChildDrawingOrderCallbackIfNecessary(holder.itemView);
+        }
+        if (holder == mGrabbedHolder) {
+            settleGrabbedItem(anim.mSwipeDir <= 0);
+        }
+    }
+
+    private void dispatchPendingSwipes() {
+        final int size = mPendingSwipes.size();
+        if (mCallback.isSwipeBatchEnabled()) {
+            int count = 0;
+            int[] positions = new int[size];
+            for (int i = 0; i < size; i++) {
+                final RecoverAnimation anim = mPendingSwipes.get(i);
+                final int position = anim.mViewHolder.getAdapterPosition();
+                if (!anim.mOverridden && !anim.mMenuOpen && position != RecyclerView.NO_POSITION) {
+                    positions[count++] = position;
+                }
+            }
+            // 只打开了菜单的Item不能当作滑动删除,仍然单独回调.
+            for (int i = 0; i < size; i++) {
+                final RecoverAnimation anim = mPendingSwipes.get(i);
+                if (!anim.mOverridden && anim.mMenuOpen
+                        && anim.mViewHolder.getAdapterPosition() != RecyclerView.NO_POSITION) {
+                    mCallback.onSwiped(anim.mViewHolder, mPendingSwipeDirs[i]);
+                }
+            }
+            releasePendingSwipes();
+            if (count == 0) {
+                return;
+            }
+            if (count < size) {
+                int[] valid = new int[count];
+                System.arraycopy(positions, 0, valid, 0, count);
+                positions = valid;
+            }
+            Arrays.sort(positions);
+            mCallback.onSwipedBatch(positions);
+            return;
+        }
         for (int i = 0; i < size; i++) {
-            if (!mRecoverAnimations.get(i).mEnded) {
-                return true;
+            final RecoverAnimation anim = mPendingSwipes.get(i);
+            if (!anim.mOverridden && anim.mViewHolder.getAdapterPosition() != RecyclerView.NO_POSITION) {
+                mCallback.onSwiped(anim.mViewHolder, mPendingSwipeDirs[i]);
             }
         }
-        return false;
+        releasePendingSwipes();
+    }
+
+    private void releasePendingSwipes() {
+        for (int i = mPendingSwipes.size() - 1; i >= 0; i--) {
+            final RecoverAnimation anim = mPendingSwipes.get(i);
+            anim.mDispatchPending = false;
+            recycleRecoverAnimation(anim);
+        }
+        mPendingSwipes.clear();
+    }
+
+    boolean hasRunningRecoverAnim() {
+        return mRunningRecoverCount > 0;
     }
 
     /**
@@ -1097,15 +2351,24 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
 
     @Override
     public void onChildViewAttachedToWindow(View view) {
+        mElevationTracker.onChildAttached(view);
+        final RecyclerView.ViewHolder holder = mRecyclerView.getChildViewHolder(view);
+        applyOpenState(holder);
+        updateMenuClip(holder);
     }
 
     @Override
     public void onChildViewDetachedFromWindow(View view) {
         removeChildDrawingOrderCallbackIfNecessary(view);
+        mElevationTracker.onChildDetached(view);
         final RecyclerView.ViewHolder holder = mRecyclerView.getChildViewHolder(view);
         if (holder == null) {
             return;
         }
+        if (holder == mGrabbedHolder) {
+            settleGrabbedItem(true);
+        }
+        releaseLayer(getItemFrontView(holder));
         if (mSelected != null && holder == mSelected) {
             select(null, ACTION_STATE_IDLE, false);
         } else {
@@ -1114,6 +2377,22 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
             if (mPendingCleanup.remove(holder.itemView)) {
                 mCallback.clearView(mRecyclerView, holder);
             }
+            final boolean opened;
+            if (hasStableOpenState()) {
+                // 状态按照stable id保留,重新显示的时候恢复.
+                if (holder == mPreOpened) {
+                    mPreOpened = null;
+                }
+                opened = mOpenStates.contains(holder.getItemId());
+            } else {
+                // 离开屏幕的Item不再保持打开的状态.
+                opened = mMultiOpen && mOpenStates.remove(openKeyOf(holder));
+            }
+            // 避免复用的时候带着平移,已经不在打开状态中的Item(比如被删除的)也一样.
+            final View front = getItemFrontView(holder);
+            if (front != null && front.getTranslationX() != 0 && (opened || holder != mPreOpened)) {
+                front.setTranslationX(0);
+            }
         }
     }
 
@@ -1130,7 +2409,10 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
                     anim.cancel();
                 }
                 mRecoverAnimations.remove(i);
-                return anim.mAnimationType;
+                anim.mInList = false;
+                final int animationType = anim.mAnimationType;
+                recycleRecoverAnimation(anim);
+                return animationType;
             }
         }
         return 0;
@@ -1145,7 +2427,9 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
 
     void obtainVelocityTracker() {
         if (mVelocityTracker != null) {
-            mVelocityTracker.recycle();
+            // re-use the tracker of the previous gesture instead of going through the pool.
+            mVelocityTracker.clear();
+            return;
         }
         mVelocityTracker = VelocityTracker.obtain();
     }
@@ -1165,15 +2449,11 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
         final int pointerIndex = motionEvent.findPointerIndex(mActivePointerId);
         final float dx = motionEvent.getX(pointerIndex) - mInitialTouchX;
         final float dy = motionEvent.getY(pointerIndex) - mInitialTouchY;
-        final float absDx = Math.abs(dx);
-        final float absDy = Math.abs(dy);
-
-        if (absDx < mSlop && absDy < mSlop) {
+        if (!SwipeDecisions.isPastSlop(dx, dy, mSlop)) {
             return null;
         }
-        if (absDx > absDy && lm.canScrollHorizontally()) {
-            return null;
-        } else if (absDy > absDx && lm.canScrollVertically()) {
+        if (SwipeDecisions.isScrollGesture(dx, dy, lm.canScrollHorizontally(),
+                lm.canScrollVertically())) {
             return null;
         }
         View child = findChildView(motionEvent);
@@ -1198,46 +2478,21 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
         if (vh == null) {
             return false;
         }
-        final int movementFlags = mCallback.getAbsoluteMovementFlags(mRecyclerView, vh);
-
-        final int swipeFlags = (movementFlags & ACTION_MODE_SWIPE_MASK)
-                >> (DIRECTION_FLAG_COUNT * ACTION_STATE_SWIPE);
-
-        if (swipeFlags == 0) {
+        if (mMultiOpen && mOpenStates.contains(openKeyOf(vh))) {
+            // 打开的Item先关闭才能再次侧滑.
             return false;
         }
+        final int movementFlags = mCallback.getAbsoluteMovementFlags(mRecyclerView, vh);
+
+        final int swipeFlags = SwipeDirections.swipeFlags(movementFlags);
 
         // mDx and mDy are only set in allowed directions. We use custom x/y here instead of
         // updateDxDy to avoid swiping if user moves more in the other direction
-        final float x = motionEvent.getX(pointerIndex);
-        final float y = motionEvent.getY(pointerIndex);
-
-        // Calculate the distance moved
-        final float dx = x - mInitialTouchX;
-        final float dy = y - mInitialTouchY;
-        // swipe target is chose w/o applying flags so it does not really check if swiping in that
-        // direction is allowed. This why here, we use mDx mDy to check slope value again.
-        final float absDx = Math.abs(dx);
-        final float absDy = Math.abs(dy);
-
-        if (absDx < mSlop && absDy < mSlop) {
+        final float dx = motionEvent.getX(pointerIndex) - mInitialTouchX;
+        final float dy = motionEvent.getY(pointerIndex) - mInitialTouchY;
+        if (!SwipeDecisions.canStartSwipe(dx, dy, mSlop, swipeFlags)) {
             return false;
         }
-        if (absDx > absDy) {
-            if (dx < 0 && (swipeFlags & LEFT) == 0) {
-                return false;
-            }
-            if (dx > 0 && (swipeFlags & RIGHT) == 0) {
-                return false;
-            }
-        } else {
-            if (dy < 0 && (swipeFlags & UP) == 0) {
-                return false;
-            }
-            if (dy > 0 && (swipeFlags & DOWN) == 0) {
-                return false;
-            }
-        }
         mDx = mDy = 0f;
         mActivePointerId = motionEvent.getPointerId(0);
         select(vh, ACTION_STATE_SWIPE, false);
@@ -1367,124 +2622,42 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
         final float y = ev.getY(pointerIndex);
 
         // Calculate the distance moved
-        mDx = x - mInitialTouchX;
-        mDy = y - mInitialTouchY;
-        if ((directionFlags & LEFT) == 0) {
-            mDx = Math.max(0, mDx);
-        }
-        if ((directionFlags & RIGHT) == 0) {
-            mDx = Math.min(0, mDx);
-        }
-        if ((directionFlags & UP) == 0) {
-            mDy = Math.max(0, mDy);
-        }
-        if ((directionFlags & DOWN) == 0) {
-            mDy = Math.min(0, mDy);
-        }
+        mDx = SwipeDirections.clampDx(x - mInitialTouchX, directionFlags);
+        mDy = SwipeDirections.clampDy(y - mInitialTouchY, directionFlags);
     }
 
     private int swipeIfNecessary(RecyclerView.ViewHolder viewHolder) {
         if (mActionState == ACTION_STATE_DRAG) {
             return 0;
         }
+        final int layoutDirection = ViewCompat.getLayoutDirection(mRecyclerView);
         final int originalMovementFlags = mCallback.getMovementFlags(mRecyclerView, viewHolder);
-        final int absoluteMovementFlags = mCallback.convertToAbsoluteDirection(
-                originalMovementFlags,
-                ViewCompat.getLayoutDirection(mRecyclerView));
-        final int flags = (absoluteMovementFlags
-                & ACTION_MODE_SWIPE_MASK) >> (ACTION_STATE_SWIPE * DIRECTION_FLAG_COUNT);
+        final int flags = SwipeDirections.swipeFlags(
+                mCallback.convertToAbsoluteDirection(originalMovementFlags, layoutDirection));
         if (flags == 0) {
             return 0;
         }
-        final int originalFlags = (originalMovementFlags
-                & ACTION_MODE_SWIPE_MASK) >> (ACTION_STATE_SWIPE * DIRECTION_FLAG_COUNT);
-        int swipeDir;
-        //start slipping.
-        if (Math.abs(mDx) > Math.abs(mDy)) {
-            if ((swipeDir = checkHorizontalSwipe(viewHolder, flags)) > 0) {
-                // if swipe dir is not in original flags, it should be the relative direction
-                if ((originalFlags & swipeDir) == 0) {
-                    // convert to relative
-                    return WeSwipeHelper.Callback.convertToRelativeDirection(swipeDir,
-                            ViewCompat.getLayoutDirection(mRecyclerView));
-                }
-                return swipeDir;
-            }
-            if ((swipeDir = checkVerticalSwipe(viewHolder, flags)) > 0) {
-                return swipeDir;
-            }
-        } else {
-            if ((swipeDir = checkVerticalSwipe(viewHolder, flags)) > 0) {
-                return swipeDir;
-            }
-            if ((swipeDir = checkHorizontalSwipe(viewHolder, flags)) > 0) {
-                // if swipe dir is not in original flags, it should be the relative direction
-                if ((originalFlags & swipeDir) == 0) {
-                    // convert to relative
-                    return WeSwipeHelper.Callback.convertToRelativeDirection(swipeDir,
-                            ViewCompat.getLayoutDirection(mRecyclerView));
-                }
-                return swipeDir;
-            }
-        }
-        return 0;
-    }
-
-    private int checkHorizontalSwipe(RecyclerView.ViewHolder viewHolder, int flags) {
-        if ((flags & (LEFT | RIGHT)) != 0) {
-            final int dirFlag = mDx > 0 ? RIGHT : LEFT;
-            if (mVelocityTracker != null && mActivePointerId > -1) {
-                mVelocityTracker.computeCurrentVelocity(PIXELS_PER_SECOND,
-                        mCallback.getSwipeVelocityThreshold(mMaxSwipeVelocity));
-                final float xVelocity = mVelocityTracker.getXVelocity(mActivePointerId);
-                final float yVelocity = mVelocityTracker.getYVelocity(mActivePointerId);
-                final int velDirFlag = xVelocity > 0f ? RIGHT : LEFT;
-                final float absXVelocity = Math.abs(xVelocity);
-                if ((velDirFlag & flags) != 0 && dirFlag == velDirFlag
-                        && absXVelocity >= mCallback.getSwipeEscapeVelocity(mSwipeEscapeVelocity)
-                        && absXVelocity > Math.abs(yVelocity)) {
-                    return velDirFlag;
-                }
-            }
-            int width = mRecyclerView.getWidth();
-            //If the target layout follows the item view, the RecyclerView is wider than itself.
-            if (swipeTypeIsFollowing()) {
-                float swipeWidth = getSwipeWidth(viewHolder);
-                width += (int) swipeWidth;
-            }
-            final float threshold = width * mCallback
-                    .getSwipeThreshold(viewHolder);
-            if ((flags & dirFlag) != 0 && Math.abs(mDx) > threshold) {
-                return dirFlag;
-            }
-        }
-        return 0;
-    }
-
-    private int checkVerticalSwipe(RecyclerView.ViewHolder viewHolder, int flags) {
-        if ((flags & (UP | DOWN)) != 0) {
-            final int dirFlag = mDy > 0 ? DOWN : UP;
-            if (mVelocityTracker != null && mActivePointerId > -1) {
-                mVelocityTracker.computeCurrentVelocity(PIXELS_PER_SECOND,
-                        mCallback.getSwipeVelocityThreshold(mMaxSwipeVelocity));
-                final float xVelocity = mVelocityTracker.getXVelocity(mActivePointerId);
-                final float yVelocity = mVelocityTracker.getYVelocity(mActivePointerId);
-                final int velDirFlag = yVelocity > 0f ? DOWN : UP;
-                final float absYVelocity = Math.abs(yVelocity);
-                if ((velDirFlag & flags) != 0 && velDirFlag == dirFlag
-                        && absYVelocity >= mCallback.getSwipeEscapeVelocity(mSwipeEscapeVelocity)
-                        && absYVelocity > Math.abs(xVelocity)) {
-                    return velDirFlag;
-                }
-            }
-
-            final float threshold = mRecyclerView.getHeight() * mCallback
-                    .getSwipeThreshold(viewHolder);
-            if ((flags & dirFlag) != 0 && Math.abs(mDy) > threshold) {
-                return dirFlag;
-            }
+        final boolean hasVelocity = mVelocityTracker != null && mActivePointerId > -1;
+        float xVelocity = 0f;
+        float yVelocity = 0f;
+        if (hasVelocity) {
+            mVelocityTracker.computeCurrentVelocity(PIXELS_PER_SECOND,
+                    mCallback.getSwipeVelocityThreshold(mMaxSwipeVelocity));
+            xVelocity = mVelocityTracker.getXVelocity(mActivePointerId);
+            yVelocity = mVelocityTracker.getYVelocity(mActivePointerId);
+        }
+        final float swipeThreshold = mCallback.getSwipeThreshold(viewHolder);
+        int width = mRecyclerView.getWidth();
+        //If the target layout follows the item view, the RecyclerView is wider than itself.
+        if (swipeTypeIsFollowing()) {
+            width += (int) getSwipeWidth(viewHolder);
         }
-        return 0;
+        //start slipping.
+        return SwipeDecisions.resolveSwipeDirection(flags,
+                SwipeDirections.swipeFlags(originalMovementFlags), layoutDirection, mDx, mDy,
+                hasVelocity, xVelocity, yVelocity,
+                mCallback.getSwipeEscapeVelocity(mSwipeEscapeVelocity),
+                width * swipeThreshold, mRecyclerView.getHeight() * swipeThreshold);
     }
 
     void removeChildDrawingOrderCallbackIfNecessary(View view) {
@@ -1524,6 +2697,20 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
 
     }
 
+    /**
+     * {@link #SWIPE_ITEM_TYPE_DEFAULT}类型的菜单在needSwipeLayout()的下面,Item关闭的时候完全被挡住.
+     * 实现这个接口之后,关闭的时候菜单设置为{@link View#INVISIBLE},侧滑的时候只绘制露出来的部分,
+     * 避免每一帧都绘制被挡住的菜单.
+     */
+    public interface SwipeMenuCallBack extends SwipeLayoutTypeCallBack {
+
+        /**
+         * @return needSwipeLayout()下面的菜单,和needSwipeLayout()在同一个父View中.
+         */
+        View getMenuView();
+
+    }
+
     /**
      * An interface which can be implemented by LayoutManager for better integration with
      * {@link WeSwipeHelper}.
@@ -1589,15 +2776,24 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
 
         public static final int DEFAULT_SWIPE_ANIMATION_DURATION = 250;
 
-        static final int RELATIVE_DIR_FLAGS = START | END
-                | ((START | END) << DIRECTION_FLAG_COUNT)
-                | ((START | END) << (2 * DIRECTION_FLAG_COUNT));
+        static final int RELATIVE_DIR_FLAGS = SwipeDirections.RELATIVE_DIR_FLAGS;
 
         private static final ItemTouchUIUtil sUICallback;
 
-        private static final int ABS_HORIZONTAL_DIR_FLAGS = LEFT | RIGHT
-                | ((LEFT | RIGHT) << DIRECTION_FLAG_COUNT)
-                | ((LEFT | RIGHT) << (2 * DIRECTION_FLAG_COUNT));
+        /**
+         * 平铺模式使用的实现,只改变平移.
+         */
+        private static final ItemTouchUIUtil sFlatUICallback = new ItemTouchUIUtilImpl.Honeycomb();
+
+        /**
+         * attach到RecyclerView的时候由WeSwipeHelper设置,提升选中的Item的时候不需要遍历所有的Item.
+         */
+        ElevationTracker mElevationTracker;
+
+        /**
+         * 平铺模式,由{@link WeSwipeHelper#setFlatSwipe(boolean)}设置.
+         */
+        boolean mFlat;
 
         private static final Interpolator sDragScrollInterpolator = new Interpolator() {
             @Override
@@ -1685,22 +2881,7 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
          * @see #convertToAbsoluteDirection(int, int)
          */
         public static int convertToRelativeDirection(int flags, int layoutDirection) {
-            int masked = flags & ABS_HORIZONTAL_DIR_FLAGS;
-            if (masked == 0) {
-                return flags; // does not have any abs flags, good.
-            }
-            flags &= ~masked; //remove left / right.
-            if (layoutDirection == ViewCompat.LAYOUT_DIRECTION_LTR) {
-                // no change. just OR with 2 bits shifted mask and return
-                flags |= masked << 2; // START is 2 bits after LEFT, END is 2 bits after RIGHT.
-                return flags;
-            } else {
-                // add RIGHT flag as START
-                flags |= ((masked << 1) & ~ABS_HORIZONTAL_DIR_FLAGS);
-                // first clean RIGHT bit then add LEFT flag as END
-                flags |= ((masked << 1) & ABS_HORIZONTAL_DIR_FLAGS) << 2;
-            }
-            return flags;
+            return SwipeDirections.convertToRelativeDirection(flags, layoutDirection);
         }
 
         /**
@@ -1715,9 +2896,7 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
          * @return Returns an integer composed of the given drag and swipe flags.
          */
         public static int makeMovementFlags(int dragFlags, int swipeFlags) {
-            return makeFlag(ACTION_STATE_IDLE, swipeFlags | dragFlags)
-                    | makeFlag(ACTION_STATE_SWIPE, swipeFlags)
-                    | makeFlag(ACTION_STATE_DRAG, dragFlags);
+            return SwipeDirections.makeMovementFlags(dragFlags, swipeFlags);
         }
 
         /**
@@ -1731,7 +2910,7 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
          * @return And integer that represents the given directions in the provided actionState.
          */
         public static int makeFlag(int actionState, int directions) {
-            return directions << (actionState * DIRECTION_FLAG_COUNT);
+            return SwipeDirections.makeFlag(actionState, directions);
         }
 
         /**
@@ -1774,22 +2953,7 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
          * @return Updated flags which includes only absolute direction values.
          */
         public int convertToAbsoluteDirection(int flags, int layoutDirection) {
-            int masked = flags & RELATIVE_DIR_FLAGS;
-            if (masked == 0) {
-                return flags; // does not have any relative flags, good.
-            }
-            flags &= ~masked; //remove start / end
-            if (layoutDirection == ViewCompat.LAYOUT_DIRECTION_LTR) {
-                // no change. just OR with 2 bits shifted mask and return
-                flags |= masked >> 2; // START is 2 bits after LEFT, END is 2 bits after RIGHT.
-                return flags;
-            } else {
-                // add START flag as RIGHT
-                flags |= ((masked >> 1) & ~RELATIVE_DIR_FLAGS);
-                // first clean start bit then add END flag as LEFT
-                flags |= ((masked >> 1) & RELATIVE_DIR_FLAGS) >> 2;
-            }
-            return flags;
+            return SwipeDirections.convertToAbsoluteDirection(flags, layoutDirection);
         }
 
         final int getAbsoluteMovementFlags(RecyclerView recyclerView,
@@ -2076,6 +3240,26 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
          */
         public abstract void onSwiped(RecyclerView.ViewHolder viewHolder, int direction);
 
+        /**
+         * 是否把动画期间完成的多个滑动合并成一次{@link #onSwipedBatch(int[])},
+         * 默认false,每个滑动单独回调{@link #onSwiped(RecyclerView.ViewHolder, int)}.
+         * 没有达到侧滑成功的条件、只是打开了菜单的Item不会合并,仍然单独回调onSwiped.
+         *
+         * @return true 合并回调.
+         */
+        public boolean isSwipeBatchEnabled() {
+            return false;
+        }
+
+        /**
+         * {@link #isSwipeBatchEnabled()}返回true的时候,ItemAnimator和恢复动画都结束之后调用一次,
+         * 可以一次删除所有的数据,合并成连续的范围刷新,只有一次布局.
+         *
+         * @param adapterPositions 侧滑成功的Item的adapter position,从小到大排列,不包含只打开了菜单的Item.
+         */
+        public void onSwipedBatch(int[] adapterPositions) {
+        }
+
         /**
          * Called when the ViewHolder swiped or dragged by the WeSwipeHelper is changed.
          * <p/>
@@ -2208,18 +3392,6 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
                 onChildDrawOver(c, parent, selected, dX, dY, actionState, true);
                 c.restoreToCount(count);
             }
-            boolean hasRunningAnimation = false;
-            for (int i = recoverAnimSize - 1; i >= 0; i--) {
-                final WeSwipeHelper.RecoverAnimation anim = recoverAnimationList.get(i);
-                if (anim.mEnded && !anim.mIsPendingCleanup) {
-                    recoverAnimationList.remove(i);
-                } else if (!anim.mEnded) {
-                    hasRunningAnimation = true;
-                }
-            }
-            if (hasRunningAnimation) {
-                parent.invalidate();
-            }
         }
 
         /**
@@ -2236,7 +3408,17 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
          * @param viewHolder   The View that was interacted by the user.
          */
         public void clearView(RecyclerView recyclerView, RecyclerView.ViewHolder viewHolder) {
-            sUICallback.clearView(viewHolder.itemView);
+            if (mFlat) {
+                if (mElevationTracker != null) {
+                    // 切换到平铺模式之前提升过的Item.
+                    mElevationTracker.restore(viewHolder.itemView);
+                }
+                sFlatUICallback.clearView(viewHolder.itemView);
+            } else if (mElevationTracker != null && sUICallback instanceof ItemTouchUIUtilImpl.Lollipop) {
+                ((ItemTouchUIUtilImpl.Lollipop) sUICallback).clearView(viewHolder.itemView, mElevationTracker);
+            } else {
+                sUICallback.clearView(viewHolder.itemView);
+            }
         }
 
         /**
@@ -2269,8 +3451,16 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
         public void onChildDraw(Canvas c, RecyclerView recyclerView,
                                 RecyclerView.ViewHolder viewHolder, View swipeView,
                                 float dX, float dY, int actionState, boolean isCurrentlyActive, float swipeWidth) {
-            sUICallback.onDraw(c, recyclerView, viewHolder.itemView, dX, dY, actionState,
-                    isCurrentlyActive);
+            if (mFlat) {
+                sFlatUICallback.onDraw(c, recyclerView, viewHolder.itemView, dX, dY, actionState,
+                        isCurrentlyActive);
+            } else if (mElevationTracker != null && sUICallback instanceof ItemTouchUIUtilImpl.Lollipop) {
+                ((ItemTouchUIUtilImpl.Lollipop) sUICallback).onDraw(c, recyclerView, viewHolder.itemView,
+                        dX, dY, actionState, isCurrentlyActive, mElevationTracker);
+            } else {
+                sUICallback.onDraw(c, recyclerView, viewHolder.itemView, dX, dY, actionState,
+                        isCurrentlyActive);
+            }
         }
 
         /**
@@ -2496,23 +3686,36 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
         }
     }
 
-    private static class RecoverAnimation implements Animator.AnimatorListener {
+    /**
+     * 由{@link #mAnimationEngine}驱动,结束之后放回缓存重复使用.
+     */
+    private class RecoverAnimation implements SwipeAnimationEngine.Target {
+
+        float mStartDx;
 
-        final float mStartDx;
+        float mStartDy;
 
-        final float mStartDy;
+        float mTargetX;
 
-        final float mTargetX;
+        float mTargetY;
 
-        final float mTargetY;
+        RecyclerView.ViewHolder mViewHolder;
 
-        final RecyclerView.ViewHolder mViewHolder;
+        int mActionState;
 
-        final int mActionState;
+        int mAnimationType;
 
-        private final ValueAnimator mValueAnimator;
+        /**
+         * 结束之后{@link Callback#onSwiped(RecyclerView.ViewHolder, int)}使用的方向,失败的时候小于等于0.
+         */
+        int mSwipeDir;
 
-        final int mAnimationType;
+        private long mDuration;
+
+        /**
+         * 开始时的水平速度,像素/秒,弹簧动画使用.
+         */
+        float mVelocityX;
 
         public boolean mIsPendingCleanup;
 
@@ -2526,10 +3729,25 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
 
         boolean mEnded = false;
 
+        /**
+         * 是否在{@link #mRecoverAnimations}中.
+         */
+        boolean mInList;
+
+        /**
+         * 是否在{@link #mPendingSwipes}中等待分发.
+         */
+        boolean mDispatchPending;
+
+        /**
+         * 没有达到侧滑成功的条件,只是平移超过了菜单宽度的一半而打开菜单.方向和START相同,不能用方向区分.
+         */
+        boolean mMenuOpen;
+
         private float mFraction;
 
-        RecoverAnimation(RecyclerView.ViewHolder viewHolder, int animationType,
-                         int actionState, float startDx, float startDy, float targetX, float targetY) {
+        void init(RecyclerView.ViewHolder viewHolder, int animationType, int actionState,
+                  float startDx, float startDy, float targetX, float targetY, int swipeDir) {
             mActionState = actionState;
             mAnimationType = animationType;
             mViewHolder = viewHolder;
@@ -2537,30 +3755,35 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
             mStartDy = startDy;
             mTargetX = targetX;
             mTargetY = targetY;
-            mValueAnimator = ValueAnimator.ofFloat(0f, 1f);
-            mValueAnimator.addUpdateListener(
-                    new ValueAnimator.AnimatorUpdateListener() {
-                        @Override
-                        public void onAnimationUpdate(ValueAnimator animation) {
-                            setFraction(animation.getAnimatedFraction());
-                        }
-                    });
-            mValueAnimator.setTarget(viewHolder.itemView);
-            mValueAnimator.addListener(this);
+            mSwipeDir = swipeDir;
+            mIsPendingCleanup = false;
+            mOverridden = false;
+            mEnded = false;
+            mInList = false;
+            mDispatchPending = false;
+            mMenuOpen = false;
+            mVelocityX = 0;
+            mX = 0;
+            mY = 0;
             setFraction(0f);
         }
 
         public void setDuration(long duration) {
-            mValueAnimator.setDuration(duration);
+            mDuration = duration;
         }
 
         public void start() {
             mViewHolder.setIsRecyclable(false);
-            mValueAnimator.start();
+            mRunningRecoverCount++;
+            if (mActionState == ACTION_STATE_SWIPE && mStartDy == mTargetY) {
+                startSettle(this, mTargetX - mStartDx, mVelocityX, mDuration);
+            } else {
+                mAnimationEngine.start(this, mDuration);
+            }
         }
 
         public void cancel() {
-            mValueAnimator.cancel();
+            mAnimationEngine.cancel(this);
         }
 
         public void setFraction(float fraction) {
@@ -2585,26 +3808,28 @@ public class WeSwipeHelper extends RecyclerView.ItemDecoration
         }
 
         @Override
-        public void onAnimationStart(Animator animation) {
-
+        public void onAnimationUpdate(float fraction) {
+            setFraction(fraction);
+            if (mTranslationOnly && mInList) {
+                update();
+                applyTranslation(mViewHolder, mX, mY, mActionState, false);
+            }
         }
 
         @Override
-        public void onAnimationEnd(Animator animation) {
+        public void onAnimationEnd(boolean canceled) {
+            if (canceled) {
+                setFraction(1f); //make sure we recover the view's state.
+            }
             if (!mEnded) {
                 mViewHolder.setIsRecyclable(true);
+                mEnded = true;
+                onRecoverAnimationEnd(this);
+                if (mTranslationOnly && mRecyclerView != null) {
+                    // 绘制一次,从mRecoverAnimations中移除.
+                    mRecyclerView.invalidate();
+                }
             }
-            mEnded = true;
-        }
-
-        @Override
-        public void onAnimationCancel(Animator animation) {
-            setFraction(1f); //make sure we recover the view's state.
-        }
-
-        @Override
-        public void onAnimationRepeat(Animator animation) {
-
         }
     }
 
@@ -0,0 +1,139 @@
+package cn.we.swipe.helper;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.support.v4.view.ViewCompat;
+import android.support.v7.widget.DefaultItemAnimator;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewPropertyAnimator;
+
+import java.util.ArrayList;
+
+/**
+ * Created to : 支持侧滑菜单的ItemAnimator.
+ * <p>
+ * 删除打开的Item的时候不需要先关闭它:从当前的平移继续滑出并淡出,同时其他Item移动填补空位,
+ * 只有一次动画.其他的动画和{@link DefaultItemAnimator}一样.
+ * <p>
+ * 使用方式:recyclerView.setItemAnimator(new WeSwipeItemAnimator()),
+ * {@link WeSwipeProxyAdapter}检测到之后删除的时候不再等待关闭动画.
+ *
+ * @author WANG
+ */
+public class WeSwipeItemAnimator extends DefaultItemAnimator {
+
+    private final ArrayList<RecyclerView.ViewHolder> mPendingOpenedRemovals = new ArrayList<>();
+
+    private final ArrayList<RecyclerView.ViewHolder> mOpenedRemoveAnimations = new ArrayList<>();
+
+    @Override
+    public boolean animateRemove(RecyclerView.ViewHolder holder) {
+        final View front = getOpenedFrontView(holder);
+        if (front == null) {
+            return super.animateRemove(holder);
+        }
+        // 不交给DefaultItemAnimator,其他Item的移动不用等删除动画结束.
+        endAnimation(holder);
+        mPendingOpenedRemovals.add(holder);
+        return true;
+    }
+
+    @Override
+    public void runPendingAnimations() {
+        super.runPendingAnimations();
+        if (mPendingOpenedRemovals.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < mPendingOpenedRemovals.size(); i++) {
+            animateOpenedRemoveImpl(mPendingOpenedRemovals.get(i));
+        }
+        mPendingOpenedRemovals.clear();
+    }
+
+    private void animateOpenedRemoveImpl(final RecyclerView.ViewHolder holder) {
+        final View view = holder.itemView;
+        final View front = ((WeSwipeHelper.SwipeLayoutTypeCallBack) holder).needSwipeLayout();
+        final float target = front.getTranslationX() < 0 ? -view.getWidth() : view.getWidth();
+        mOpenedRemoveAnimations.add(holder);
+        if (holder instanceof WeSwipeHelper.SwipeMenuCallBack) {
+            // 前面的View会完全滑走,菜单不再只绘制露出来的部分.
+            final View menu = ((WeSwipeHelper.SwipeMenuCallBack) holder).getMenuView();
+            if (menu != null) {
+                ViewCompat.setClipBounds(menu, null);
+            }
+        }
+        view.animate().alpha(0).setDuration(getRemoveDuration()).setListener(null).start();
+        final ViewPropertyAnimator animation = front.animate();
+        animation.translationX(target).setDuration(getRemoveDuration())
+                .setListener(new AnimatorListenerAdapter() {
+                    @Override
+                    public void onAnimationStart(Animator animator) {
+                        dispatchRemoveStarting(holder);
+                    }
+
+                    @Override
+                    public void onAnimationEnd(Animator animator) {
+                        animation.setListener(null);
+                        view.animate().cancel();
+                        view.setAlpha(1);
+                        front.setTranslationX(0);
+                        mOpenedRemoveAnimations.remove(holder);
+                        dispatchRemoveFinished(holder);
+                        if (!isRunning()) {
+                            dispatchAnimationsFinished();
+                        }
+                    }
+                }).start();
+    }
+
+    @Override
+    public void endAnimation(RecyclerView.ViewHolder item) {
+        if (mPendingOpenedRemovals.remove(item)) {
+            resetOpened(item);
+            dispatchRemoveFinished(item);
+        } else if (mOpenedRemoveAnimations.contains(item)) {
+            // 取消的时候会回调onAnimationEnd.
+            ((WeSwipeHelper.SwipeLayoutTypeCallBack) item).needSwipeLayout().animate().cancel();
+        }
+        super.endAnimation(item);
+    }
+
+    @Override
+    public void endAnimations() {
+        for (int i = mPendingOpenedRemovals.size() - 1; i >= 0; i--) {
+            final RecyclerView.ViewHolder item = mPendingOpenedRemovals.remove(i);
+            resetOpened(item);
+            dispatchRemoveFinished(item);
+        }
+        for (int i = mOpenedRemoveAnimations.size() - 1; i >= 0; i--) {
+            ((WeSwipeHelper.SwipeLayoutTypeCallBack) mOpenedRemoveAnimations.get(i)).needSwipeLayout()
+                    .animate().cancel();
+        }
+        super.endAnimations();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return !mPendingOpenedRemovals.isEmpty() || !mOpenedRemoveAnimations.isEmpty() || super.isRunning();
+    }
+
+    private static void resetOpened(RecyclerView.ViewHolder holder) {
+        holder.itemView.setAlpha(1);
+        ((WeSwipeHelper.SwipeLayoutTypeCallBack) holder).needSwipeLayout().setTranslationX(0);
+    }
+
+    /**
+     * @return 打开状态(有平移)的Item需要滑动的View,没有打开的话返回null.
+     */
+    private static View getOpenedFrontView(RecyclerView.ViewHolder holder) {
+        if (!(holder instanceof WeSwipeHelper.SwipeLayoutTypeCallBack)) {
+            return null;
+        }
+        final View front = ((WeSwipeHelper.SwipeLayoutTypeCallBack) holder).needSwipeLayout();
+        if (front == null || front.getTranslationX() == 0) {
+            return null;
+        }
+        return front;
+    }
+}
@@ -0,0 +1,21 @@
+package cn.we.swipe.helper;
+
+/**
+ * Created to : 每一次完整的侧滑手势结束之后回调一次,通过{@link WeSwipe#setMetricsListener(WeSwipeMetricsListener)}设置.
+ * 数据先写入预先分配好的环形缓冲区,在手势结束之后的下一个消息中回调,统计的过程不会产生对象.
+ * 如果回调不及时,缓冲区满了之后最老的记录会被覆盖.
+ *
+ * @author WANG
+ */
+public interface WeSwipeMetricsListener {
+
+    /**
+     * 在主线程中回调.
+     *
+     * @param downToFirstTranslationNanos 从ACTION_DOWN到第一次onChildDraw平移的时间,没有平移的话为-1.
+     * @param settleNanos                 从ACTION_UP到恢复动画结束的时间,手指还没有抬起动画就结束的话从动画开始计算.
+     * @param frameCount                  恢复动画渲染的帧数,API 16以下为0.
+     * @param lateFrameCount              根据Choreographer的帧时间,迟到的帧数.
+     */
+    void onGestureMetrics(long downToFirstTranslationNanos, long settleNanos, int frameCount, int lateFrameCount);
+}
@@ -1,7 +1,16 @@
 package cn.we.swipe.helper;
 
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v7.util.DiffUtil;
 import android.support.v7.widget.RecyclerView;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
 /**
  * Created to :
  *
@@ -18,12 +27,54 @@ public abstract class WeSwipeProxyAdapter<VH extends RecyclerView.ViewHolder> ex
 
     private WeSwipe mWeSwipe;
 
+    /**
+     * 每次{@link #submitList(List, WeSwipeDiffCallback)}加一,旧的计算结果不再使用.
+     */
+    private volatile int mSubmitGeneration;
+
+    /**
+     * 等待关闭期间收到的刷新.
+     */
+    private final PendingNotifications mPending = new PendingNotifications();
+
+    /**
+     * 是否已经开始关闭,等待分发{@link #mPending}.
+     */
+    private boolean mRecoverPending;
+
+    private boolean mImmediateNotify;
+
+    /**
+     * 等待关闭期间{@link #submitList(List, WeSwipeDiffCallback)}的回调,在队列分发之后调用.
+     */
+    private ArrayList<RecoverCallback> mAfterRecover;
+
+    /**
+     * 设置proxyNotify*是否立即刷新,默认先关闭打开的Item,动画结束之后再刷新.
+     * <p>
+     * 立即刷新的时候,刷新的范围包含打开的Item的话,该Item直接回到原位;不包含的话保持打开.
+     * 没有stable id的时候打开的Item的position会跟着插入,删除和移动变化.
+     *
+     * @param immediateNotify true 立即刷新.
+     */
+    public void setImmediateNotify(boolean immediateNotify) {
+        mImmediateNotify = immediateNotify;
+    }
+
     public void setWeSwipe(WeSwipe mWeSwipe) {
         this.mWeSwipe = mWeSwipe;
     }
 
     private void checkItem(RecoverCallback callback) {
-        if (null != mWeSwipe) {
+        if (mRecoverPending) {
+            // 和队列中的刷新共用同一次关闭.
+            if (null == mAfterRecover) {
+                mAfterRecover = new ArrayList<>();
+            }
+            mAfterRecover.add(callback);
+            return;
+        }
+        if (null != mWeSwipe && !mWeSwipe.hasStableOpenState()) {
             if (mWeSwipe.haveRecoverItem()) {
                 mWeSwipe.recoverAll(callback,recoverDuration);
             }else {
@@ -34,95 +85,311 @@ public abstract class WeSwipeProxyAdapter<VH extends RecyclerView.ViewHolder> ex
         }
     }
 
-    public void proxyNotifyDataSetChanged() {
-       checkItem(new RecoverCallback() {
+    /**
+     * 提交新的数据,在后台线程中用DiffUtil计算差异,同时关闭打开的Item,两者都完成之后在主线程中
+     * 换成新的数据并只刷新变化的部分.再次提交的话,之前还没有应用的结果会被丢弃.
+     * <p>
+     * 必须在主线程中调用,提交之后不要再修改newList.
+     *
+     * @param newList  新的数据.
+     * @param callback 比较数据以及替换Adapter中的数据.
+     */
+    public <T> void submitList(final List<T> newList, final WeSwipeDiffCallback<T> callback) {
+        final int generation = ++mSubmitGeneration;
+        final List<T> oldList = new ArrayList<>(callback.getCurrentList());
+        final PendingDiff pending = new PendingDiff(generation) {
             @Override
-            public void recoverEnd() {
-                notifyDataSetChanged();
+            void apply(DiffUtil.DiffResult result) {
+                callback.setCurrentList(newList);
+                result.dispatchUpdatesTo(WeSwipeProxyAdapter.this);
             }
-        });
-    }
-
-    public void proxyNotifyItemChanged(final int position) {
-        checkItem(new RecoverCallback() {
+        };
+        DiffExecutor.get().execute(new Runnable() {
             @Override
-            public void recoverEnd() {
-                notifyItemRangeChanged(position, 1);
+            public void run() {
+                if (generation != mSubmitGeneration) {
+                    // 已经有新的提交了,不用再计算.
+                    return;
+                }
+                final DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+                    @Override
+                    public int getOldListSize() {
+                        return oldList.size();
+                    }
+
+                    @Override
+                    public int getNewListSize() {
+                        return newList.size();
+                    }
+
+                    @Override
+                    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                        return callback.areItemsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+                    }
+
+                    @Override
+                    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                        return callback.areContentsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+                    }
+
+                    @Override
+                    public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+                        return callback.getChangePayload(oldList.get(oldItemPosition), newList.get(newItemPosition));
+                    }
+                });
+                DiffExecutor.MAIN.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        pending.onDiffCalculated(result);
+                    }
+                });
             }
         });
-    }
-
-    public void proxyNotifyItemChanged(final int position,final Object payload) {
         checkItem(new RecoverCallback() {
             @Override
             public void recoverEnd() {
-                notifyItemRangeChanged(position, 1,payload);
+                pending.onRecovered();
             }
         });
     }
 
-    public void proxyNotifyItemRangeChanged(final int positionStart,final int itemCount) {
-        checkItem(new RecoverCallback() {
-            @Override
-            public void recoverEnd() {
-                notifyItemRangeChanged(positionStart, itemCount);
+    /**
+     * 等待差异计算完成并且打开的Item关闭之后,应用最后一次提交的结果.
+     */
+    private abstract class PendingDiff {
+
+        private final int mGeneration;
+
+        private DiffUtil.DiffResult mResult;
+
+        private boolean mRecovered;
+
+        PendingDiff(int generation) {
+            mGeneration = generation;
+        }
+
+        void onDiffCalculated(DiffUtil.DiffResult result) {
+            mResult = result;
+            applyIfReady();
+        }
+
+        void onRecovered() {
+            mRecovered = true;
+            applyIfReady();
+        }
+
+        private void applyIfReady() {
+            if (mGeneration != mSubmitGeneration || null == mResult || !mRecovered) {
+                return;
             }
-        });
+            apply(mResult);
+        }
+
+        abstract void apply(DiffUtil.DiffResult result);
     }
 
-    public void proxyNotifyItemRangeChanged(final int positionStart, final int itemCount, final Object payload) {
-        checkItem(new RecoverCallback() {
-            @Override
-            public void recoverEnd() {
-                notifyItemRangeChanged(positionStart, itemCount, payload);
+    /**
+     * 所有的Adapter共用一个后台线程计算差异.
+     */
+    private static final class DiffExecutor {
+
+        static final Handler MAIN = new Handler(Looper.getMainLooper());
+
+        private static Executor sExecutor;
+
+        static synchronized Executor get() {
+            if (null == sExecutor) {
+                sExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "WeSwipe-diff");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
             }
-        });
+            return sExecutor;
+        }
     }
 
-    public void proxyNotifyItemInserted(final int position) {
-        checkItem(new RecoverCallback() {
-            @Override
-            public void recoverEnd() {
-                notifyItemRangeInserted(position, 1);
+    public void proxyNotifyDataSetChanged() {
+        if (needQueue()) {
+            mPending.addDataSetChanged();
+            startRecover();
+        } else {
+            if (isImmediate()) {
+                mWeSwipe.closeOpenedInRange(0, Integer.MAX_VALUE, false);
             }
-        });
+            beginNotify();
+            notifyDataSetChanged();
+            endNotify();
+        }
     }
 
-    public void proxyNotifyItemMoved(final int fromPosition, final int toPosition) {
-        checkItem(new RecoverCallback() {
-            @Override
-            public void recoverEnd() {
-                notifyItemMoved(fromPosition, toPosition);
+    public void proxyNotifyItemChanged(int position) {
+        proxyNotifyItemRangeChanged(position, 1, null);
+    }
+
+    public void proxyNotifyItemChanged(int position, Object payload) {
+        proxyNotifyItemRangeChanged(position, 1, payload);
+    }
+
+    /**
+     * 只刷新payload,比如未读数和时间.keepOpen为true的时候打开的Item不会关闭,也不会有Item的change动画,
+     * 需要在{@link #onBindViewHolder(RecyclerView.ViewHolder, int, List)}中根据payload局部刷新.
+     *
+     * @param payload  为null的时候会完整的重新绑定,keepOpen无效.
+     * @param keepOpen true 保持打开的Item的平移.
+     */
+    public void proxyNotifyItemChanged(int position, Object payload, boolean keepOpen) {
+        proxyNotifyItemRangeChanged(position, 1, payload, keepOpen);
+    }
+
+    public void proxyNotifyItemRangeChanged(int positionStart, int itemCount, Object payload, boolean keepOpen) {
+        if (!keepOpen || null == payload || mRecoverPending) {
+            // 等待关闭的时候需要和队列中的刷新保持顺序.
+            proxyNotifyItemRangeChanged(positionStart, itemCount, payload);
+            return;
+        }
+        beginNotify();
+        notifyItemRangeChanged(positionStart, itemCount, payload);
+        endNotify();
+    }
+
+    public void proxyNotifyItemRangeChanged(int positionStart, int itemCount) {
+        proxyNotifyItemRangeChanged(positionStart, itemCount, null);
+    }
+
+    public void proxyNotifyItemRangeChanged(int positionStart, int itemCount, Object payload) {
+        if (needQueue()) {
+            mPending.addChanged(positionStart, itemCount, payload);
+            startRecover();
+        } else {
+            if (isImmediate()) {
+                mWeSwipe.closeOpenedInRange(positionStart, itemCount, false);
             }
-        });
+            beginNotify();
+            notifyItemRangeChanged(positionStart, itemCount, payload);
+            endNotify();
+        }
     }
 
-    public void proxyNotifyItemRangeInserted(final int positionStart, final int itemCount) {
-        checkItem(new RecoverCallback() {
-            @Override
-            public void recoverEnd() {
-                notifyItemRangeInserted(positionStart, itemCount);
+    public void proxyNotifyItemInserted(int position) {
+        proxyNotifyItemRangeInserted(position, 1);
+    }
+
+    public void proxyNotifyItemMoved(int fromPosition, int toPosition) {
+        if (needQueue()) {
+            mPending.addMoved(fromPosition, toPosition);
+            startRecover();
+        } else {
+            if (isImmediate()) {
+                mWeSwipe.onOpenedItemMoved(fromPosition, toPosition, false);
             }
-        });
+            beginNotify();
+            notifyItemMoved(fromPosition, toPosition);
+            endNotify();
+        }
     }
 
-    public void proxyNotifyItemRemoved(final int position) {
-        checkItem(new RecoverCallback() {
-            @Override
-            public void recoverEnd() {
-                notifyItemRangeRemoved(position, 1);
+    public void proxyNotifyItemRangeInserted(int positionStart, int itemCount) {
+        if (needQueue()) {
+            mPending.addInserted(positionStart, itemCount);
+            startRecover();
+        } else {
+            if (isImmediate()) {
+                mWeSwipe.onOpenedRangeInserted(positionStart, itemCount);
             }
-        });
+            beginNotify();
+            notifyItemRangeInserted(positionStart, itemCount);
+            endNotify();
+        }
     }
 
-    public void proxyNotifyItemRangeRemoved(final int positionStart, final int itemCount) {
-        checkItem(new RecoverCallback() {
-            @Override
-            public void recoverEnd() {
-                notifyItemRangeRemoved(positionStart, itemCount);
+    public void proxyNotifyItemRemoved(int position) {
+        proxyNotifyItemRangeRemoved(position, 1);
+    }
+
+    public void proxyNotifyItemRangeRemoved(int positionStart, int itemCount) {
+        if (needQueue()) {
+            mPending.addRemoved(positionStart, itemCount);
+            startRecover();
+        } else {
+            if (isImmediate()) {
+                mWeSwipe.onOpenedRangeRemoved(positionStart, itemCount, false);
             }
-        });
+            beginNotify();
+            notifyItemRangeRemoved(positionStart, itemCount);
+            endNotify();
+        }
+    }
+
+    /**
+     * 正在等待关闭,或者有打开的Item需要先关闭的时候,刷新先放到队列中.
+     */
+    private boolean needQueue() {
+        if (mRecoverPending) {
+            return true;
+        }
+        return !mImmediateNotify && null != mWeSwipe && !mWeSwipe.hasSwipeItemAnimator()
+                && !mWeSwipe.hasStableOpenState() && mWeSwipe.haveRecoverItem();
     }
 
+    /**
+     * 立即刷新并且打开的状态需要跟着position变化.
+     * 使用{@link WeSwipeItemAnimator}的时候也是立即刷新,删除的打开的Item从当前的平移开始播放删除动画.
+     */
+    private boolean isImmediate() {
+        return null != mWeSwipe && (mImmediateNotify || mWeSwipe.hasSwipeItemAnimator())
+                && mWeSwipe.haveRecoverItem();
+    }
+
+    private void beginNotify() {
+        if (null != mWeSwipe) {
+            mWeSwipe.setProxyNotifying(true);
+        }
+    }
+
+    private void endNotify() {
+        if (null != mWeSwipe) {
+            mWeSwipe.setProxyNotifying(false);
+        }
+    }
+
+    /**
+     * 等待期间只开始一次关闭动画.
+     */
+    private void startRecover() {
+        if (mRecoverPending) {
+            return;
+        }
+        mRecoverPending = true;
+        if (null == mWeSwipe || !mWeSwipe.haveRecoverItem()) {
+            // 没有需要关闭的Item,不会有回调,直接分发.
+            mFlushCallback.recoverEnd();
+            return;
+        }
+        mWeSwipe.recoverAll(mFlushCallback, recoverDuration);
+    }
+
+    /**
+     * 关闭动画结束之后,一次分发队列中所有的刷新.
+     */
+    private final RecoverCallback mFlushCallback = new RecoverCallback() {
+        @Override
+        public void recoverEnd() {
+            mRecoverPending = false;
+            beginNotify();
+            mPending.dispatchTo(WeSwipeProxyAdapter.this);
+            endNotify();
+            if (null != mAfterRecover) {
+                ArrayList<RecoverCallback> callbacks = mAfterRecover;
+                mAfterRecover = null;
+                for (int i = 0; i < callbacks.size(); i++) {
+                    callbacks.get(i).recoverEnd();
+                }
+            }
+        }
+    };
 
 }
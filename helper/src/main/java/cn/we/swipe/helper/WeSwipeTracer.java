@@ -0,0 +1,57 @@
+package cn.we.swipe.helper;
+
+/**
+ * Created to : WeSwipeHelper内部工作的追踪接口,通过{@link WeSwipe#setTracer(WeSwipeTracer)}设置.
+ * 默认是{@link #NONE},不做任何事情;需要在systrace中查看的话使用{@link SystraceWeSwipeTracer},
+ * 需要输出日志的话使用{@link LogWeSwipeTracer}.
+ * <p>
+ * 所有的方法都在触摸事件或者绘制的过程中调用,实现类不要做耗时的操作.
+ *
+ * @author WANG
+ */
+public interface WeSwipeTracer {
+
+    String SECTION_INTERCEPT = "WeSwipe#intercept";
+
+    String SECTION_SELECT = "WeSwipe#select";
+
+    String SECTION_RECOVER = "WeSwipe#recover";
+
+    String SECTION_DRAW = "WeSwipe#draw";
+
+    String SECTION_CLICK = "WeSwipe#click";
+
+    /**
+     * 不做任何追踪.
+     */
+    WeSwipeTracer NONE = new WeSwipeTracer() {
+        @Override
+        public void beginSection(String sectionName) {
+        }
+
+        @Override
+        public void endSection() {
+        }
+
+        @Override
+        public void event(String name, int value) {
+        }
+    };
+
+    /**
+     * 开始一段追踪,必须和{@link #endSection()}成对调用.
+     *
+     * @param sectionName 使用该接口中定义的常量.
+     */
+    void beginSection(String sectionName);
+
+    void endSection();
+
+    /**
+     * 记录一个事件,比如被打开的Item的位置.参数都是基本类型,需要的话由实现类自己去格式化.
+     *
+     * @param name  事件的名字.
+     * @param value 事件相关的数值.
+     */
+    void event(String name, int value);
+}
@@ -0,0 +1,77 @@
+package cn.we.swipe.helper;
+
+import android.support.v4.view.ViewCompat;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created to : {@link ElevationTracker}在attach/detach的时候更新最大elevation,提升和恢复Item的elevation.
+ *
+ * @author WANG
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class ElevationTrackerTest {
+
+    private SwipeTestFixture mFixture;
+
+    private ElevationTracker mTracker;
+
+    @Before
+    public void setUp() {
+        mFixture = new SwipeTestFixture(20);
+        ViewCompat.setElevation(mFixture.recyclerView.getChildAt(1), 4f);
+        mTracker = new ElevationTracker();
+        mTracker.attach(mFixture.recyclerView);
+    }
+
+    @Test
+    public void raiseAndRestore_keepsOriginalElevation() {
+        final View view = mFixture.recyclerView.getChildAt(3);
+        ViewCompat.setElevation(view, 2f);
+
+        mTracker.raise(view);
+        assertEquals(5f, ViewCompat.getElevation(view), 0f);
+        // 已经提升过的不再提升.
+        mTracker.raise(view);
+        assertEquals(5f, ViewCompat.getElevation(view), 0f);
+
+        assertTrue(mTracker.restore(view));
+        assertEquals(2f, ViewCompat.getElevation(view), 0f);
+        assertFalse(mTracker.restore(view));
+    }
+
+    @Test
+    public void attachAndDetach_updateMax() {
+        assertEquals(4f, mTracker.getMaxElevation(), 0f);
+
+        final View higher = new View(mFixture.recyclerView.getContext());
+        ViewCompat.setElevation(higher, 8f);
+        mTracker.onChildAttached(higher);
+        assertEquals(8f, mTracker.getMaxElevation(), 0f);
+
+        mTracker.onChildDetached(higher);
+        assertEquals(4f, mTracker.getMaxElevation(), 0f);
+    }
+
+    @Test
+    public void secondRaisedView_goesAboveFirst() {
+        final View first = mFixture.recyclerView.getChildAt(2);
+        final View second = mFixture.recyclerView.getChildAt(5);
+
+        mTracker.raise(first);
+        mTracker.raise(second);
+
+        assertEquals(5f, ViewCompat.getElevation(first), 0f);
+        assertEquals(6f, ViewCompat.getElevation(second), 0f);
+    }
+}
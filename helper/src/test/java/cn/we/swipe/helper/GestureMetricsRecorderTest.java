@@ -0,0 +1,129 @@
+package cn.we.swipe.helper;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Created to : {@link GestureMetricsRecorder}的耗时和迟到的帧数,时间由测试控制.
+ *
+ * @author WANG
+ */
+public class GestureMetricsRecorderTest {
+
+    private static final long MS = 1000000L;
+
+    private static final long FRAME_INTERVAL = 1000000000L / 60;
+
+    private FakeClockRecorder mRecorder;
+
+    private RecordingListener mListener;
+
+    @Before
+    public void setUp() {
+        mListener = new RecordingListener();
+        mRecorder = new FakeClockRecorder(mListener);
+        mRecorder.now = 1000 * MS;
+    }
+
+    @Test
+    public void gesture_recordsFirstTranslationAndSettle() {
+        mRecorder.onDown();
+        mRecorder.now += 5 * MS;
+        mRecorder.onTranslated();
+        mRecorder.now += 3 * MS;
+        // 只记录第一次平移.
+        mRecorder.onTranslated();
+        mRecorder.now += 100 * MS;
+        mRecorder.onUp();
+        mRecorder.now += 2 * MS;
+        mRecorder.onSettleStart();
+        mRecorder.now += 200 * MS;
+        mRecorder.onSettleEnd();
+        mRecorder.deliver();
+
+        assertEquals(1, mListener.count);
+        assertEquals(5 * MS, mListener.downToFirstTranslation);
+        // 从抬起开始计算.
+        assertEquals(202 * MS, mListener.settle);
+        assertEquals(0, mListener.frames);
+    }
+
+    @Test
+    public void noTranslation_reportsMinusOne() {
+        mRecorder.onDown();
+        mRecorder.onSettleStart();
+        mRecorder.now += 50 * MS;
+        mRecorder.onSettleEnd();
+        mRecorder.deliver();
+
+        assertEquals(1, mListener.count);
+        assertEquals(-1, mListener.downToFirstTranslation);
+        // 没有抬起,从动画开始计算.
+        assertEquals(50 * MS, mListener.settle);
+    }
+
+    @Test
+    public void onFrame_countsFramesLongerThanOneAndHalfIntervals() {
+        mRecorder.onDown();
+        mRecorder.onUp();
+        mRecorder.onSettleStart();
+        long frameTime = 5000 * MS;
+        mRecorder.onFrame(frameTime);
+        frameTime += FRAME_INTERVAL;
+        mRecorder.onFrame(frameTime);
+        // 正好1.5倍不算迟到.
+        frameTime += FRAME_INTERVAL * 3 / 2;
+        mRecorder.onFrame(frameTime);
+        frameTime += FRAME_INTERVAL * 3 / 2 + 1;
+        mRecorder.onFrame(frameTime);
+        frameTime += FRAME_INTERVAL * 2;
+        mRecorder.onFrame(frameTime);
+        mRecorder.onSettleEnd();
+        // 动画结束之后的帧不统计.
+        mRecorder.onFrame(frameTime + FRAME_INTERVAL * 10);
+        mRecorder.deliver();
+
+        assertEquals(1, mListener.count);
+        assertEquals(5, mListener.frames);
+        assertEquals(2, mListener.lateFrames);
+    }
+
+    private static class FakeClockRecorder extends GestureMetricsRecorder {
+
+        long now;
+
+        FakeClockRecorder(WeSwipeMetricsListener listener) {
+            super(listener);
+        }
+
+        @Override
+        long nowNanos() {
+            return now;
+        }
+    }
+
+    private static class RecordingListener implements WeSwipeMetricsListener {
+
+        int count;
+
+        long downToFirstTranslation;
+
+        long settle;
+
+        int frames;
+
+        int lateFrames;
+
+        @Override
+        public void onGestureMetrics(long downToFirstTranslationNanos, long settleNanos, int frameCount,
+                                     int lateFrameCount) {
+            count++;
+            downToFirstTranslation = downToFirstTranslationNanos;
+            settle = settleNanos;
+            frames = frameCount;
+            lateFrames = lateFrameCount;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package cn.we.swipe.helper;
+
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created to : {@link LazyMenuInflater}在需要的时候才添加菜单,空闲的时候提前创建的菜单可以复用.
+ *
+ * @author WANG
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class LazyMenuInflaterTest {
+
+    private static final int MENU_LAYOUT = android.R.layout.simple_list_item_1;
+
+    private SwipeTestFixture mFixture;
+
+    private LazyMenuInflater mInflater;
+
+    @Before
+    public void setUp() {
+        mFixture = new SwipeTestFixture(20);
+        mInflater = new LazyMenuInflater();
+        mInflater.attach(mFixture.recyclerView);
+    }
+
+    @After
+    public void tearDown() {
+        mInflater.attach(null);
+    }
+
+    @Test
+    public void ensureMenu_addsOnce() {
+        final TestProvider provider = new TestProvider();
+
+        assertTrue(mInflater.ensureMenu(provider, true));
+        assertSame(provider.parent.getChildAt(0), provider.menu);
+        assertEquals(1, provider.attachCount);
+        assertFalse(mInflater.ensureMenu(provider, true));
+        assertEquals(1, provider.attachCount);
+    }
+
+    @Test
+    public void ensureMenu_measuresNewMenu() {
+        final TestProvider provider = new TestProvider();
+        provider.parent.layout(0, 0, 300, 100);
+
+        mInflater.ensureMenu(provider, false);
+
+        assertEquals(300, provider.menu.getMeasuredWidth());
+    }
+
+    @Test
+    public void prefetch_inflatesOnIdleAndIsReused() {
+        final TestProvider first = new TestProvider();
+        mInflater.prefetch(first);
+
+        // 每次空闲只创建一个.
+        assertFalse(mInflater.queueIdle());
+        assertEquals(1, mInflater.getPooledCount(MENU_LAYOUT));
+        assertNull(first.menu);
+
+        mInflater.ensureMenu(first, true);
+        assertEquals(0, mInflater.getPooledCount(MENU_LAYOUT));
+    }
+
+    @Test
+    public void prefetch_keepsPoolSmall() {
+        for (int i = 0; i < LazyMenuInflater.MAX_POOLED * 3; i++) {
+            mInflater.prefetch(new TestProvider());
+            while (mInflater.queueIdle()) {
+                // 继续执行直到没有等待的.
+            }
+        }
+
+        assertEquals(LazyMenuInflater.MAX_POOLED, mInflater.getPooledCount(MENU_LAYOUT));
+    }
+
+    private static class TestProvider implements SwipeMenuProvider {
+
+        final FrameLayout parent = new FrameLayout(RuntimeEnvironment.application);
+
+        View menu;
+
+        int attachCount;
+
+        TestProvider() {
+            parent.addView(new View(RuntimeEnvironment.application));
+        }
+
+        @Override
+        public int getMenuLayoutId() {
+            return MENU_LAYOUT;
+        }
+
+        @Override
+        public ViewGroup getMenuParent() {
+            return parent;
+        }
+
+        @Override
+        public View getMenu() {
+            return menu;
+        }
+
+        @Override
+        public void onMenuAttached(View menu) {
+            this.menu = menu;
+            attachCount++;
+        }
+    }
+}
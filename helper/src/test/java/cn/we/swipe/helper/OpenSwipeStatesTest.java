@@ -0,0 +1,90 @@
+package cn.we.swipe.helper;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OpenSwipeStatesTest {
+
+    @Test
+    public void putContainsRemove() {
+        OpenSwipeStates states = new OpenSwipeStates();
+        states.put(3, -480f);
+        states.put(-1, -200f);
+        assertTrue(states.contains(3));
+        assertTrue(states.contains(-1));
+        assertFalse(states.contains(4));
+        assertEquals(-480f, states.getOffset(3, 0f), 0f);
+        assertEquals(2, states.size());
+
+        assertTrue(states.remove(3));
+        assertFalse(states.remove(3));
+        assertFalse(states.contains(3));
+        assertEquals(1, states.size());
+    }
+
+    @Test
+    public void putSameKey_replacesOffset() {
+        OpenSwipeStates states = new OpenSwipeStates();
+        states.put(7, -100f);
+        states.put(7, -300f);
+        assertEquals(1, states.size());
+        assertEquals(-300f, states.getOffset(7, 0f), 0f);
+    }
+
+    @Test
+    public void randomOperations_matchHashMap() {
+        OpenSwipeStates states = new OpenSwipeStates();
+        Map<Long, Float> expected = new HashMap<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 20000; i++) {
+            // 小范围的key让删除经常落在探测链的中间.
+            long key = random.nextInt(64) * 1024L;
+            if (random.nextBoolean()) {
+                float offset = random.nextFloat();
+                states.put(key, offset);
+                expected.put(key, offset);
+            } else {
+                assertEquals(expected.remove(key) != null, states.remove(key));
+            }
+            assertEquals(expected.size(), states.size());
+        }
+        for (long key = 0; key < 64 * 1024L; key += 1024) {
+            assertEquals(expected.containsKey(key), states.contains(key));
+        }
+        int visited = 0;
+        for (int slot = 0; slot < states.capacity(); slot++) {
+            if (states.isUsed(slot)) {
+                visited++;
+                assertEquals(expected.get(states.keyAt(slot)), states.offsetAt(slot), 0f);
+            }
+        }
+        assertEquals(expected.size(), visited);
+
+        states.clear();
+        assertTrue(states.isEmpty());
+    }
+
+    @Test
+    public void removeRangeAndOffsetKeys() {
+        OpenSwipeStates states = new OpenSwipeStates();
+        for (int i = 0; i < 20; i++) {
+            states.put(i, -i);
+        }
+        assertEquals(5, states.removeRange(5, 10));
+        states.offsetKeys(10, -5);
+        assertEquals(15, states.size());
+        for (int i = 0; i < 15; i++) {
+            assertTrue(states.contains(i));
+        }
+        assertEquals(-19f, states.getOffset(14, 0f), 0f);
+        assertEquals(-4f, states.getOffset(4, 0f), 0f);
+        assertFalse(states.contains(15));
+    }
+}
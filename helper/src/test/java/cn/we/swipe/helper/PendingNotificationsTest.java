@@ -0,0 +1,84 @@
+package cn.we.swipe.helper;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PendingNotificationsTest {
+
+    @Test
+    public void adjacentChanges_mergeIntoOneRange() {
+        PendingNotifications pending = new PendingNotifications();
+        pending.addChanged(4, 2, null);
+        pending.addChanged(6, 1, null);
+        pending.addChanged(3, 2, null);
+        assertEquals(1, pending.size());
+        assertEquals(3, pending.startAt(0));
+        assertEquals(4, pending.countAt(0));
+    }
+
+    @Test
+    public void changesWithDifferentPayload_stayApart() {
+        PendingNotifications pending = new PendingNotifications();
+        pending.addChanged(4, 1, "a");
+        pending.addChanged(5, 1, "b");
+        assertEquals(2, pending.size());
+    }
+
+    @Test
+    public void consecutiveRemovesAtSamePosition_mergeIntoOneRange() {
+        PendingNotifications pending = new PendingNotifications();
+        pending.addRemoved(5, 1);
+        pending.addRemoved(5, 1);
+        pending.addRemoved(4, 1);
+        assertEquals(1, pending.size());
+        assertEquals(PendingNotifications.TYPE_REMOVED, pending.typeAt(0));
+        assertEquals(4, pending.startAt(0));
+        assertEquals(3, pending.countAt(0));
+    }
+
+    @Test
+    public void insertsInsideInsertedRange_merge() {
+        PendingNotifications pending = new PendingNotifications();
+        pending.addInserted(10, 2);
+        pending.addInserted(12, 1);
+        pending.addInserted(20, 1);
+        assertEquals(2, pending.size());
+        assertEquals(3, pending.countAt(0));
+        assertEquals(20, pending.startAt(1));
+    }
+
+    @Test
+    public void differentTypes_keepOrder() {
+        PendingNotifications pending = new PendingNotifications();
+        pending.addRemoved(5, 1);
+        pending.addInserted(5, 1);
+        pending.addRemoved(5, 1);
+        assertEquals(3, pending.size());
+    }
+
+    @Test
+    public void dataSetChanged_replacesEverything() {
+        PendingNotifications pending = new PendingNotifications();
+        pending.addRemoved(5, 1);
+        pending.addDataSetChanged();
+        pending.addInserted(2, 1);
+        assertEquals(0, pending.size());
+        assertFalse(pending.isEmpty());
+        pending.clear();
+        assertTrue(pending.isEmpty());
+    }
+
+    @Test
+    public void manyRecords_growPastInitialCapacity() {
+        PendingNotifications pending = new PendingNotifications();
+        for (int i = 0; i < 40; i++) {
+            pending.addMoved(i, i + 100);
+        }
+        assertEquals(40, pending.size());
+        assertEquals(39, pending.startAt(39));
+        assertEquals(139, pending.countAt(39));
+    }
+}
@@ -0,0 +1,54 @@
+package cn.we.swipe.helper;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created to : {@link SwipeAnimationEngine}的弹簧动画,距离越短结束得越快.
+ *
+ * @author WANG
+ */
+public class SwipeAnimationEngineTest {
+
+    private static final float FRAME_SECONDS = 1f / 60;
+
+    @Test
+    public void spring_startsAtZeroWithGivenVelocity() {
+        assertEquals(-1f, SwipeAnimationEngine.springOffset(3f, 0f), 1e-6f);
+        assertEquals(3f, SwipeAnimationEngine.springVelocity(3f, 0f), 1e-4f);
+        assertEquals(0f, SwipeAnimationEngine.springOffset(0f, 1f), 1e-6f);
+    }
+
+    @Test
+    public void spring_withoutVelocity_neverOvershoots() {
+        for (int frame = 0; frame < 60; frame++) {
+            assertTrue(SwipeAnimationEngine.springOffset(0f, frame * FRAME_SECONDS) <= 0f);
+        }
+    }
+
+    @Test
+    public void spring_shortDistance_settlesInFewFrames() {
+        final int shortFrames = framesToSettle(4f, 0f);
+        final int longFrames = framesToSettle(720f, 0f);
+        assertTrue("4px took " + shortFrames + " frames", shortFrames <= 8);
+        assertTrue(shortFrames < longFrames);
+        // 朝向终点的初速度让动画更快接近终点.
+        final float t = 3 * FRAME_SECONDS;
+        assertTrue(Math.abs(SwipeAnimationEngine.springOffset(2000f / 720f, t))
+                < Math.abs(SwipeAnimationEngine.springOffset(0f, t)));
+    }
+
+    private static int framesToSettle(float distancePx, float velocity) {
+        final float threshold = 0.5f / distancePx;
+        for (int frame = 1; frame < 600; frame++) {
+            final float t = frame * FRAME_SECONDS;
+            if (Math.abs(SwipeAnimationEngine.springOffset(velocity, t)) < threshold
+                    && Math.abs(SwipeAnimationEngine.springVelocity(velocity, t)) < threshold * 60) {
+                return frame;
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,303 @@
+package cn.we.swipe.helper;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.SystemClock;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.Gravity;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import org.robolectric.Robolectric;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created to : 测试用的RecyclerView环境,每个Item都是{@link WeSwipeHelper#SWIPE_ITEM_TYPE_DEFAULT}类型的布局,
+ * 菜单在ItemView的下面.
+ *
+ * @author WANG
+ */
+class SwipeTestFixture {
+
+    static final int WIDTH = 1080;
+
+    static final int HEIGHT = 1920;
+
+    static final int ITEM_HEIGHT = 150;
+
+    static final int MENU_WIDTH = 480;
+
+    final RecyclerView recyclerView;
+
+    final TestAdapter adapter;
+
+    private Canvas mCanvas;
+
+    SwipeTestFixture(int itemCount) {
+        this(new RecyclerView(RuntimeEnvironment.application), itemCount);
+    }
+
+    SwipeTestFixture(RecyclerView recyclerView, int itemCount) {
+        this(recyclerView, itemCount, false);
+    }
+
+    SwipeTestFixture(RecyclerView recyclerView, int itemCount, boolean stableIds) {
+        this.recyclerView = recyclerView;
+        adapter = new TestAdapter(itemCount);
+        adapter.setHasStableIds(stableIds);
+        recyclerView.setLayoutManager(new LinearLayoutManager(recyclerView.getContext()));
+        recyclerView.setAdapter(adapter);
+        layout();
+    }
+
+    void layout() {
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    /**
+     * 放到Activity中attach到Window上,{@link View#post(Runnable)}的任务才会执行,
+     * 比如{@link WeSwipeHelper}分发等待的onSwiped.大小仍然是{@link #WIDTH} x {@link #HEIGHT}.
+     */
+    void attachToWindow() {
+        final Activity activity = Robolectric.setupActivity(Activity.class);
+        activity.setContentView(recyclerView, new ViewGroup.LayoutParams(WIDTH, HEIGHT));
+        layout();
+    }
+
+    /**
+     * 模拟一帧:推进主线程的时钟,执行动画和post的任务,需要的话重新布局,最后绘制一次.
+     * {@link #recyclerView}没有attach到Window上,布局和绘制都需要手动触发.
+     */
+    void pumpFrame(long frameMs) {
+        ShadowLooper.idleMainLooper(frameMs, TimeUnit.MILLISECONDS);
+        if (recyclerView.isLayoutRequested()) {
+            layout();
+        }
+        if (mCanvas == null) {
+            mCanvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+        }
+        recyclerView.draw(mCanvas);
+    }
+
+    TestHolder holderAt(int position) {
+        return (TestHolder) recyclerView.findViewHolderForAdapterPosition(position);
+    }
+
+    static float centerYOf(int position) {
+        return position * ITEM_HEIGHT + ITEM_HEIGHT / 2f;
+    }
+
+    /**
+     * 按下,在slop以内轻微的移动,然后抬起.
+     */
+    static MotionEvent[] tap(float x, float y) {
+        final long downTime = SystemClock.uptimeMillis();
+        MotionEvent[] events = new MotionEvent[5];
+        events[0] = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, y, 0);
+        for (int i = 1; i < 4; i++) {
+            events[i] = MotionEvent.obtain(downTime, downTime + i * 8, MotionEvent.ACTION_MOVE, x + i, y, 0);
+        }
+        events[4] = MotionEvent.obtain(downTime, downTime + 40, MotionEvent.ACTION_UP, x + 3, y, 0);
+        return events;
+    }
+
+    /**
+     * 从x位置向左滑动distance的距离,每帧之间间隔frameMs.
+     */
+    static MotionEvent[] swipeLeft(float x, float y, float distance, int steps, long frameMs) {
+        return drag(x, y, -distance, 0, steps, frameMs);
+    }
+
+    /**
+     * 从(x, y)开始匀速移动(dx, dy)的距离,每帧之间间隔frameMs.
+     */
+    static MotionEvent[] drag(float x, float y, float dx, float dy, int steps, long frameMs) {
+        final long downTime = SystemClock.uptimeMillis();
+        MotionEvent[] events = new MotionEvent[steps + 2];
+        events[0] = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, y, 0);
+        for (int i = 1; i <= steps; i++) {
+            events[i] = MotionEvent.obtain(downTime, downTime + i * frameMs, MotionEvent.ACTION_MOVE,
+                    x + dx * i / steps, y + dy * i / steps, 0);
+        }
+        events[steps + 1] = MotionEvent.obtain(downTime, downTime + (steps + 1) * frameMs,
+                MotionEvent.ACTION_UP, x + dx, y + dy, 0);
+        return events;
+    }
+
+    /**
+     * 和RecyclerView分发给OnItemTouchListener的方式一致:一旦拦截,后续的事件都交给onTouchEvent.
+     */
+    static void replay(RecyclerView recyclerView, RecyclerView.OnItemTouchListener listener, MotionEvent[] events) {
+        boolean captured = false;
+        for (MotionEvent event : events) {
+            if (captured) {
+                listener.onTouchEvent(recyclerView, event);
+            } else {
+                captured = listener.onInterceptTouchEvent(recyclerView, event);
+            }
+        }
+    }
+
+    static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * 记录invalidate和布局的次数.
+     */
+    static class CountingRecyclerView extends RecyclerView {
+
+        int invalidateCount;
+
+        int layoutCount;
+
+        CountingRecyclerView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void invalidate() {
+            invalidateCount++;
+            super.invalidate();
+        }
+
+        @Override
+        public void postInvalidateOnAnimation() {
+            invalidateCount++;
+            super.postInvalidateOnAnimation();
+        }
+
+        @Override
+        protected void onLayout(boolean changed, int l, int t, int r, int b) {
+            layoutCount++;
+            super.onLayout(changed, l, t, r, b);
+        }
+
+        void resetCounts() {
+            invalidateCount = 0;
+            layoutCount = 0;
+        }
+    }
+
+    static class TestAdapter extends WeSwipeProxyAdapter<TestHolder> {
+
+        private int mItemCount;
+
+        TestAdapter(int itemCount) {
+            mItemCount = itemCount;
+        }
+
+        @Override
+        public TestHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+            Context context = parent.getContext();
+            FrameLayout root = new FrameLayout(context);
+            root.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ITEM_HEIGHT));
+
+            TextView menu = new TextView(context);
+            menu.setClickable(true);
+            root.addView(menu, new FrameLayout.LayoutParams(MENU_WIDTH, ViewGroup.LayoutParams.MATCH_PARENT,
+                    Gravity.END));
+
+            FrameLayout front = new FrameLayout(context);
+            TextView text = new TextView(context);
+            text.setClickable(true);
+            front.addView(text, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                    ViewGroup.LayoutParams.MATCH_PARENT));
+            root.addView(front, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                    ViewGroup.LayoutParams.MATCH_PARENT));
+            return new TestHolder(root, front, text, menu);
+        }
+
+        @Override
+        public void onBindViewHolder(TestHolder holder, int position) {
+            holder.bindCount++;
+        }
+
+        /**
+         * 只更新payload,和使用局部刷新的Adapter一样不调用super.
+         */
+        @Override
+        public void onBindViewHolder(TestHolder holder, int position, List<Object> payloads) {
+            if (payloads.isEmpty()) {
+                onBindViewHolder(holder, position);
+                return;
+            }
+            holder.payloadBindCount++;
+        }
+
+        @Override
+        public int getItemCount() {
+            return mItemCount;
+        }
+
+        void setItemCount(int itemCount) {
+            mItemCount = itemCount;
+        }
+
+        /**
+         * 设置了stable id的时候,id和position不同,方便区分.
+         */
+        @Override
+        public long getItemId(int position) {
+            return hasStableIds() ? idOf(position) : RecyclerView.NO_ID;
+        }
+
+        static long idOf(int position) {
+            return 1000L + position;
+        }
+    }
+
+    static class TestHolder extends RecyclerView.ViewHolder implements WeSwipeHelper.SwipeMenuCallBack {
+
+        final View front;
+
+        final TextView text;
+
+        final TextView menu;
+
+        int bindCount;
+
+        int payloadBindCount;
+
+        TestHolder(View itemView, View front, TextView text, TextView menu) {
+            super(itemView);
+            this.front = front;
+            this.text = text;
+            this.menu = menu;
+        }
+
+        @Override
+        public float getSwipeWidth() {
+            return MENU_WIDTH;
+        }
+
+        @Override
+        public View needSwipeLayout() {
+            return front;
+        }
+
+        @Override
+        public View onScreenView() {
+            return text;
+        }
+
+        @Override
+        public View getMenuView() {
+            return menu;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package cn.we.swipe.helper;
+
+import android.view.MotionEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created to : {@link WeSwipeAdapterDataObserver}只关闭变化范围中打开的Item.
+ *
+ * @author WANG
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class WeSwipeAdapterDataObserverTest {
+
+    private static final long FRAME_MS = 16;
+
+    private static final int ITEM_COUNT = 30;
+
+    private SwipeTestFixture mFixture;
+
+    private WeSwipe mWeSwipe;
+
+    @Before
+    public void setUp() {
+        mFixture = new SwipeTestFixture(ITEM_COUNT);
+        mWeSwipe = WeSwipe.attach(mFixture.recyclerView).setType(WeSwipeHelper.SWIPE_ITEM_TYPE_DEFAULT);
+        mFixture.adapter.registerAdapterDataObserver(new WeSwipeAdapterDataObserver(mWeSwipe));
+    }
+
+    @Test
+    public void insertBeforeOpenRow_keepsItOpenAndFollowsIt() {
+        openRow(3);
+
+        mFixture.adapter.setItemCount(ITEM_COUNT + 2);
+        mFixture.adapter.notifyItemRangeInserted(0, 2);
+        mFixture.adapter.notifyItemChanged(9, "payload");
+        settle();
+
+        assertTrue(mWeSwipe.haveRecoverItem());
+        assertEquals(-SwipeTestFixture.MENU_WIDTH, mFixture.holderAt(5).front.getTranslationX(), 1f);
+    }
+
+    @Test
+    public void changeHittingOpenRow_closesIt() {
+        openRow(3);
+
+        mFixture.adapter.setItemCount(ITEM_COUNT - 1);
+        mFixture.adapter.notifyItemRemoved(0);
+        mFixture.adapter.notifyItemChanged(2);
+        settle();
+
+        assertFalse(mWeSwipe.haveRecoverItem());
+        assertEquals(0f, mFixture.holderAt(2).front.getTranslationX(), 0f);
+    }
+
+    private void openRow(int position) {
+        MotionEvent[] events = SwipeTestFixture.swipeLeft(SwipeTestFixture.WIDTH - 60,
+                SwipeTestFixture.centerYOf(position), 600, 12, FRAME_MS);
+        for (MotionEvent event : events) {
+            mFixture.recyclerView.dispatchTouchEvent(event);
+            mFixture.pumpFrame(FRAME_MS);
+        }
+        settle();
+        assertTrue(mWeSwipe.haveRecoverItem());
+    }
+
+    private void settle() {
+        for (int i = 0; i < 50; i++) {
+            mFixture.pumpFrame(FRAME_MS);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package cn.we.swipe.helper;
+
+import android.support.v4.view.ViewCompat;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created to : 平铺模式下侧滑的Item只改变平移,不改变elevation.
+ *
+ * @author WANG
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class WeSwipeFlatModeTest {
+
+    private SwipeTestFixture mFixture;
+
+    private WeSwipeHelper.Callback mCallback;
+
+    private WeSwipeHelper mHelper;
+
+    @Before
+    public void setUp() {
+        mFixture = new SwipeTestFixture(20);
+        mCallback = new WeSwipeHelper.SimpleCallback(0, WeSwipeHelper.LEFT) {
+            @Override
+            public boolean onMove(RecyclerView recyclerView, RecyclerView.ViewHolder viewHolder,
+                                  RecyclerView.ViewHolder target) {
+                return false;
+            }
+
+            @Override
+            public void onSwiped(RecyclerView.ViewHolder viewHolder, int direction) {
+            }
+        };
+        mHelper = new WeSwipeHelper(mCallback);
+        mHelper.attachToRecyclerView(mFixture.recyclerView);
+    }
+
+    @Test
+    public void flat_onlyTranslates() {
+        mHelper.setFlatSwipe(true);
+        final SwipeTestFixture.TestHolder holder = mFixture.holderAt(2);
+
+        draw(holder, -120f);
+
+        assertEquals(-120f, holder.itemView.getTranslationX(), 0f);
+        assertEquals(0f, ViewCompat.getElevation(holder.itemView), 0f);
+        assertNull(holder.itemView.getTag(R.id.item_touch_helper_previous_elevation));
+        mCallback.clearView(mFixture.recyclerView, holder);
+        assertEquals(0f, holder.itemView.getTranslationX(), 0f);
+    }
+
+    @Test
+    public void default_raisesAndRestoresElevation() {
+        final SwipeTestFixture.TestHolder holder = mFixture.holderAt(2);
+
+        draw(holder, -120f);
+        assertTrue(ViewCompat.getElevation(holder.itemView) > 0f);
+
+        mHelper.setFlatSwipe(true);
+        mCallback.clearView(mFixture.recyclerView, holder);
+        assertEquals(0f, ViewCompat.getElevation(holder.itemView), 0f);
+    }
+
+    private void draw(SwipeTestFixture.TestHolder holder, float dX) {
+        final View swipeView = holder.needSwipeLayout();
+        mCallback.onChildDraw(null, mFixture.recyclerView, holder, swipeView, dX, 0,
+                WeSwipeHelper.ACTION_STATE_SWIPE, true, holder.getSwipeWidth());
+    }
+}
@@ -0,0 +1,108 @@
+package cn.we.swipe.helper;
+
+import android.view.MotionEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Created to : 检查{@link WeSwipeHelper#mOnItemTouchListener}在稳定状态下不会产生任何对象.
+ *
+ * @author WANG
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class WeSwipeHelperAllocationTest {
+
+    private static final int WARM_UP_ROUNDS = 20;
+
+    private static final int ROUNDS = 200;
+
+    private SwipeTestFixture mFixture;
+
+    private WeSwipeHelper mHelper;
+
+    @Before
+    public void setUp() {
+        mFixture = new SwipeTestFixture(100);
+        mHelper = new WeSwipeHelper(new WeSwipeCallback());
+        mHelper.attachToRecyclerView(mFixture.recyclerView);
+    }
+
+    @Test
+    public void tapOnClosedList_doesNotAllocate() {
+        MotionEvent[] stream = SwipeTestFixture.tap(SwipeTestFixture.WIDTH / 2f, SwipeTestFixture.centerYOf(3));
+        assertNoAllocation(stream);
+    }
+
+    @Test
+    public void tapOnMenuOfOpenedItem_doesNotAllocate() {
+        mHelper.setItemSlideType(WeSwipeHelper.SWIPE_ITEM_TYPE_DEFAULT);
+        SwipeTestFixture.TestHolder holder = mFixture.holderAt(2);
+        holder.front.setTranslationX(-SwipeTestFixture.MENU_WIDTH);
+        mHelper.mPreOpened = holder;
+
+        // 点击打开的Item下面的菜单,会经过checkSwipeViewBounds和findChildView,但不会关闭该Item.
+        MotionEvent[] stream = SwipeTestFixture.tap(SwipeTestFixture.WIDTH - SwipeTestFixture.MENU_WIDTH / 2f,
+                SwipeTestFixture.centerYOf(2));
+        assertNoAllocation(stream);
+        assertSame(holder, mHelper.mPreOpened);
+    }
+
+    @Test
+    public void tapOnMenuOfOpenedFlowingItem_closesWithoutAllocation() {
+        mHelper.setItemSlideType(WeSwipeHelper.SWIPE_ITEM_TYPE_FLOWING);
+        final SwipeTestFixture.TestHolder holder = mFixture.holderAt(2);
+        // 点击菜单:抬起的时候经过findConsumeView和isInBoundsClickable分发点击,然后开始关闭动画.
+        final MotionEvent[] stream = SwipeTestFixture.tap(
+                SwipeTestFixture.WIDTH - SwipeTestFixture.MENU_WIDTH / 2f, SwipeTestFixture.centerYOf(2));
+        final Runnable round = new Runnable() {
+            @Override
+            public void run() {
+                holder.front.setTranslationX(-SwipeTestFixture.MENU_WIDTH);
+                mHelper.mOpenStates.put(2, -SwipeTestFixture.MENU_WIDTH);
+                mHelper.mPreOpened = holder;
+                SwipeTestFixture.replay(mFixture.recyclerView, mHelper.mOnItemTouchListener, stream);
+                // 不等待帧,直接结束关闭动画,下一轮重新打开.
+                mHelper.closeOpenedInRange(2, 1, false);
+            }
+        };
+
+        assertNoAllocation(round, stream.length);
+        assertNull(mHelper.mPreOpened);
+        assertEquals(0f, holder.front.getTranslationX(), 0f);
+    }
+
+    private void assertNoAllocation(final MotionEvent[] stream) {
+        assertNoAllocation(new Runnable() {
+            @Override
+            public void run() {
+                SwipeTestFixture.replay(mFixture.recyclerView, mHelper.mOnItemTouchListener, stream);
+            }
+        }, stream.length);
+    }
+
+    private void assertNoAllocation(Runnable round, int eventsPerRound) {
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            round.run();
+        }
+        long start = SwipeTestFixture.allocatedBytes();
+        final long calibration = SwipeTestFixture.allocatedBytes() - start;
+
+        start = SwipeTestFixture.allocatedBytes();
+        for (int i = 0; i < ROUNDS; i++) {
+            round.run();
+        }
+        final long allocated = Math.max(0, SwipeTestFixture.allocatedBytes() - start - calibration);
+        final int events = ROUNDS * eventsPerRound;
+        assertEquals("allocated " + allocated + " bytes over " + events + " events ("
+                + (float) allocated / events + " bytes/event)", 0, allocated);
+    }
+}
@@ -0,0 +1,68 @@
+package cn.we.swipe.helper;
+
+import android.view.MotionEvent;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Created to : 侧滑的过程中滑动的View使用硬件层,停下来之后还原,点击不会设置.
+ *
+ * @author WANG
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class WeSwipeHelperHardwareLayerTest {
+
+    private static final long FRAME_MS = 16;
+
+    private SwipeTestFixture mFixture;
+
+    @Before
+    public void setUp() {
+        mFixture = new SwipeTestFixture(20);
+        WeSwipeHelper helper = new WeSwipeHelper(new WeSwipeCallback());
+        helper.setItemSlideType(WeSwipeHelper.SWIPE_ITEM_TYPE_DEFAULT);
+        helper.setHardwareLayerSwipe(true);
+        helper.attachToRecyclerView(mFixture.recyclerView);
+    }
+
+    @Test
+    public void swipe_usesLayerUntilSettled() {
+        final View front = mFixture.holderAt(2).front;
+        final MotionEvent[] events = SwipeTestFixture.swipeLeft(SwipeTestFixture.WIDTH - 60,
+                SwipeTestFixture.centerYOf(2), 600, 12, FRAME_MS);
+        for (int i = 0; i < events.length - 1; i++) {
+            mFixture.recyclerView.dispatchTouchEvent(events[i]);
+            mFixture.pumpFrame(FRAME_MS);
+        }
+        assertEquals(View.LAYER_TYPE_HARDWARE, front.getLayerType());
+
+        mFixture.recyclerView.dispatchTouchEvent(events[events.length - 1]);
+        settle();
+
+        assertEquals(View.LAYER_TYPE_NONE, front.getLayerType());
+    }
+
+    @Test
+    public void tap_neverUsesLayer() {
+        final View front = mFixture.holderAt(2).front;
+        for (MotionEvent event : SwipeTestFixture.tap(SwipeTestFixture.WIDTH / 2f, SwipeTestFixture.centerYOf(2))) {
+            mFixture.recyclerView.dispatchTouchEvent(event);
+            mFixture.pumpFrame(FRAME_MS);
+            assertEquals(View.LAYER_TYPE_NONE, front.getLayerType());
+        }
+    }
+
+    private void settle() {
+        for (int i = 0; i < 50; i++) {
+            mFixture.pumpFrame(FRAME_MS);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package cn.we.swipe.helper;
+
+import android.view.MotionEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created to : 关闭动画执行的过程中按下手指,从当前的位置继续侧滑,不丢失手势.
+ *
+ * @author WANG
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class WeSwipeHelperInterruptTest {
+
+    private static final long FRAME_MS = 16;
+
+    private SwipeTestFixture mFixture;
+
+    private WeSwipeHelper mHelper;
+
+    @Before
+    public void setUp() {
+        mFixture = new SwipeTestFixture(100);
+        mHelper = new WeSwipeHelper(new WeSwipeCallback());
+        mHelper.setItemSlideType(WeSwipeHelper.SWIPE_ITEM_TYPE_DEFAULT);
+        mHelper.attachToRecyclerView(mFixture.recyclerView);
+    }
+
+    @Test
+    public void swipeDuringClose_reopensRow() {
+        swipeOpen(3);
+        replay(SwipeTestFixture.tap(SwipeTestFixture.WIDTH / 4f, SwipeTestFixture.centerYOf(3)));
+        final float closing = mFixture.holderAt(3).front.getTranslationX();
+        assertTrue(closing < 0 && closing > -SwipeTestFixture.MENU_WIDTH);
+
+        swipeOpen(3);
+
+        assertTrue(mHelper.mOpenStates.contains(3));
+        assertSame(mFixture.holderAt(3), mHelper.mPreOpened);
+        assertEquals(-SwipeTestFixture.MENU_WIDTH, mFixture.holderAt(3).front.getTranslationX(), 1f);
+    }
+
+    @Test
+    public void touchDuringClose_continuesFromCurrentTranslation() {
+        swipeOpen(3);
+        replay(SwipeTestFixture.tap(SwipeTestFixture.WIDTH / 4f, SwipeTestFixture.centerYOf(3)));
+        final float closing = mFixture.holderAt(3).front.getTranslationX();
+
+        final float y = SwipeTestFixture.centerYOf(3);
+        final MotionEvent down = MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, 500, y, 0);
+        mFixture.recyclerView.dispatchTouchEvent(down);
+        mFixture.pumpFrame(FRAME_MS);
+        mFixture.pumpFrame(FRAME_MS);
+
+        assertNotEquals(0f, closing, 0f);
+        assertEquals(closing, mFixture.holderAt(3).front.getTranslationX(), 1f);
+    }
+
+    private void swipeOpen(int position) {
+        replay(SwipeTestFixture.swipeLeft(SwipeTestFixture.WIDTH - 60, SwipeTestFixture.centerYOf(position),
+                600, 12, FRAME_MS));
+        settle();
+    }
+
+    private void replay(MotionEvent[] events) {
+        for (MotionEvent event : events) {
+            mFixture.recyclerView.dispatchTouchEvent(event);
+            mFixture.pumpFrame(FRAME_MS);
+        }
+    }
+
+    private void settle() {
+        for (int i = 0; i < 50; i++) {
+            mFixture.pumpFrame(FRAME_MS);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package cn.we.swipe.helper;
+
+import android.view.MotionEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created to : 多个Item同时打开的模式.
+ *
+ * @author WANG
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class WeSwipeHelperMultiOpenTest {
+
+    private static final long FRAME_MS = 16;
+
+    private SwipeTestFixture mFixture;
+
+    private WeSwipeHelper mHelper;
+
+    @Before
+    public void setUp() {
+        mFixture = new SwipeTestFixture(100);
+        mHelper = new WeSwipeHelper(new WeSwipeCallback());
+        mHelper.setItemSlideType(WeSwipeHelper.SWIPE_ITEM_TYPE_DEFAULT);
+        mHelper.attachToRecyclerView(mFixture.recyclerView);
+        mHelper.setMultiOpen(true);
+    }
+
+    @Test
+    public void secondSwipe_keepsFirstRowOpen() {
+        swipeOpen(2);
+        swipeOpen(5);
+
+        assertEquals(2, mHelper.mOpenStates.size());
+        assertTrue(mHelper.mOpenStates.contains(2));
+        assertTrue(mHelper.mOpenStates.contains(5));
+        assertNull(mHelper.mPreOpened);
+        assertEquals(-SwipeTestFixture.MENU_WIDTH, mFixture.holderAt(2).front.getTranslationX(), 1f);
+        assertEquals(-SwipeTestFixture.MENU_WIDTH, mFixture.holderAt(5).front.getTranslationX(), 1f);
+    }
+
+    @Test
+    public void recoverAll_closesEveryOpenRow() {
+        swipeOpen(2);
+        swipeOpen(5);
+        final boolean[] recovered = new boolean[1];
+
+        mHelper.recoverPre(new RecoverCallback() {
+            @Override
+            public void recoverEnd() {
+                recovered[0] = true;
+            }
+        }, 100);
+        settle();
+
+        assertTrue(recovered[0]);
+        assertFalse(mHelper.haveRecoverItem());
+        assertEquals(0f, mFixture.holderAt(2).front.getTranslationX(), 0f);
+        assertEquals(0f, mFixture.holderAt(5).front.getTranslationX(), 0f);
+    }
+
+    @Test
+    public void tapOnFrontOfOpenRow_closesOnlyThatRow() {
+        swipeOpen(2);
+        swipeOpen(5);
+
+        replay(SwipeTestFixture.tap(SwipeTestFixture.WIDTH / 4f, SwipeTestFixture.centerYOf(5)));
+        settle();
+
+        assertTrue(mHelper.mOpenStates.contains(2));
+        assertFalse(mHelper.mOpenStates.contains(5));
+        assertEquals(0f, mFixture.holderAt(5).front.getTranslationX(), 0f);
+    }
+
+    private void swipeOpen(int position) {
+        replay(SwipeTestFixture.swipeLeft(SwipeTestFixture.WIDTH - 60, SwipeTestFixture.centerYOf(position),
+                600, 12, FRAME_MS));
+        settle();
+    }
+
+    private void replay(MotionEvent[] events) {
+        for (MotionEvent event : events) {
+            mFixture.recyclerView.dispatchTouchEvent(event);
+            mFixture.pumpFrame(FRAME_MS);
+        }
+    }
+
+    private void settle() {
+        for (int i = 0; i < 50; i++) {
+            mFixture.pumpFrame(FRAME_MS);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package cn.we.swipe.helper;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.MotionEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created to : Adapter有stable id的时候,打开的状态在复用,重新绑定和notifyDataSetChanged之后仍然正确.
+ *
+ * @author WANG
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class WeSwipeHelperStableIdTest {
+
+    private static final long FRAME_MS = 16;
+
+    private SwipeTestFixture mFixture;
+
+    private WeSwipeHelper mHelper;
+
+    @Before
+    public void setUp() {
+        RecyclerView recyclerView = new RecyclerView(RuntimeEnvironment.application);
+        mFixture = new SwipeTestFixture(recyclerView, 200, true);
+        mHelper = new WeSwipeHelper(new WeSwipeCallback());
+        mHelper.setItemSlideType(WeSwipeHelper.SWIPE_ITEM_TYPE_DEFAULT);
+        mHelper.setCloseOnScroll(false);
+        mHelper.attachToRecyclerView(recyclerView);
+    }
+
+    @Test
+    public void openRow_survivesScrollingOffScreen() {
+        swipeOpen(2);
+        assertTrue(mHelper.mOpenStates.contains(SwipeTestFixture.TestAdapter.idOf(2)));
+
+        mFixture.recyclerView.scrollToPosition(150);
+        mFixture.layout();
+        // 打开的ItemView被复用到了其他的位置上,不能带着平移.
+        for (int i = 0; i < mFixture.recyclerView.getChildCount(); i++) {
+            SwipeTestFixture.TestHolder holder = (SwipeTestFixture.TestHolder) mFixture.recyclerView
+                    .getChildViewHolder(mFixture.recyclerView.getChildAt(i));
+            assertEquals(0f, holder.front.getTranslationX(), 0f);
+        }
+        assertTrue(mHelper.haveRecoverItem());
+
+        mFixture.recyclerView.scrollToPosition(0);
+        mFixture.layout();
+        SwipeTestFixture.TestHolder back = mFixture.holderAt(2);
+        assertEquals(-SwipeTestFixture.MENU_WIDTH, back.front.getTranslationX(), 1f);
+        assertSame(back, mHelper.mPreOpened);
+        assertEquals(0f, mFixture.holderAt(3).front.getTranslationX(), 0f);
+    }
+
+    @Test
+    public void notifyDataSetChanged_keepsRowOpenWithoutAnimation() {
+        swipeOpen(2);
+        final int bindCount = mFixture.holderAt(2).bindCount;
+
+        mFixture.adapter.proxyNotifyDataSetChanged();
+        mFixture.layout();
+
+        SwipeTestFixture.TestHolder holder = mFixture.holderAt(2);
+        assertTrue(holder.bindCount > bindCount);
+        assertEquals(-SwipeTestFixture.MENU_WIDTH, holder.front.getTranslationX(), 1f);
+        assertTrue(mHelper.haveRecoverItem());
+    }
+
+    private void swipeOpen(int position) {
+        MotionEvent[] events = SwipeTestFixture.swipeLeft(SwipeTestFixture.WIDTH - 60,
+                SwipeTestFixture.centerYOf(position), 600, 12, FRAME_MS);
+        for (MotionEvent event : events) {
+            mFixture.recyclerView.dispatchTouchEvent(event);
+            mFixture.pumpFrame(FRAME_MS);
+        }
+        for (int i = 0; i < 50; i++) {
+            mFixture.pumpFrame(FRAME_MS);
+        }
+    }
+}
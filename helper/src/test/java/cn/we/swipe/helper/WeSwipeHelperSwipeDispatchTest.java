@@ -0,0 +1,192 @@
+package cn.we.swipe.helper;
+
+import android.os.SystemClock;
+import android.support.v7.widget.DefaultItemAnimator;
+import android.support.v7.widget.RecyclerView;
+import android.view.MotionEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Created to : 恢复动画结束之后onSwiped和onSwipedBatch的分发.
+ *
+ * @author WANG
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class WeSwipeHelperSwipeDispatchTest {
+
+    private static final long FRAME_MS = 16;
+
+    private SwipeTestFixture mFixture;
+
+    private RecordingCallback mCallback;
+
+    @Before
+    public void setUp() {
+        mFixture = new SwipeTestFixture(100);
+        // onSwiped是post出去的,需要attach到Window上才会执行.
+        mFixture.attachToWindow();
+        mCallback = new RecordingCallback();
+        WeSwipeHelper helper = new WeSwipeHelper(mCallback);
+        helper.setItemSlideType(WeSwipeHelper.SWIPE_ITEM_TYPE_DEFAULT);
+        helper.setMultiOpen(true);
+        helper.attachToRecyclerView(mFixture.recyclerView);
+    }
+
+    @Test
+    public void batch_leavesOutRowsThatOnlyOpenedTheirMenu() {
+        mCallback.batch = true;
+
+        // 慢慢拖过菜单宽度的一半之后停住:没有达到侧滑成功的条件,只打开菜单.
+        slowDragOpen(2);
+        // 第一个Item的恢复动画还没有结束的时候快速侧滑另一个Item.
+        for (MotionEvent event : SwipeTestFixture.swipeLeft(SwipeTestFixture.WIDTH - 60,
+                SwipeTestFixture.centerYOf(5), 600, 12, FRAME_MS)) {
+            mFixture.recyclerView.dispatchTouchEvent(event);
+        }
+        settle();
+
+        assertEquals(1, mCallback.batches.size());
+        assertEquals("[5]", Arrays.toString(mCallback.batches.get(0)));
+        // 只打开了菜单的Item单独回调.
+        assertEquals(1, mCallback.swipedPositions.size());
+        assertEquals(2, (int) mCallback.swipedPositions.get(0));
+    }
+
+    @Test
+    public void runningItemAnimator_delaysOnSwipedUntilItEnds() {
+        final HoldingItemAnimator animator = new HoldingItemAnimator();
+        mFixture.recyclerView.setItemAnimator(animator);
+
+        swipe(2);
+        settle();
+        assertEquals(0, mCallback.swipedPositions.size());
+
+        animator.finish();
+        settle();
+        assertEquals("[2]", mCallback.swipedPositions.toString());
+        settle();
+        assertEquals(1, mCallback.swipedPositions.size());
+    }
+
+    @Test
+    public void replacedItemAnimator_isWaitedOnInstead() {
+        mFixture.recyclerView.setItemAnimator(new HoldingItemAnimator());
+        swipe(2);
+        settle();
+
+        // 旧的ItemAnimator不会再回调,需要等新的结束.
+        final HoldingItemAnimator replacement = new HoldingItemAnimator();
+        mFixture.recyclerView.setItemAnimator(replacement);
+        swipe(5);
+        settle();
+        assertEquals(0, mCallback.swipedPositions.size());
+
+        replacement.finish();
+        settle();
+        assertEquals("[2, 5]", mCallback.swipedPositions.toString());
+    }
+
+    private void swipe(int position) {
+        for (MotionEvent event : SwipeTestFixture.swipeLeft(SwipeTestFixture.WIDTH - 60,
+                SwipeTestFixture.centerYOf(position), 600, 12, FRAME_MS)) {
+            dispatch(event);
+        }
+    }
+
+    /**
+     * 拖动menuWidth * 5 / 8的距离,最后停住超过速度统计的时间,抬起的时候没有速度.
+     */
+    private void slowDragOpen(int position) {
+        final float x = SwipeTestFixture.WIDTH - 60;
+        final float y = SwipeTestFixture.centerYOf(position);
+        final float distance = SwipeTestFixture.MENU_WIDTH * 5 / 8f;
+        final int steps = 10;
+        final int holdFrames = 20;
+        final long downTime = SystemClock.uptimeMillis();
+        long time = downTime;
+        dispatch(MotionEvent.obtain(downTime, time, MotionEvent.ACTION_DOWN, x, y, 0));
+        for (int i = 1; i <= steps; i++) {
+            time += FRAME_MS;
+            dispatch(MotionEvent.obtain(downTime, time, MotionEvent.ACTION_MOVE, x - distance * i / steps, y, 0));
+        }
+        for (int i = 0; i < holdFrames; i++) {
+            time += FRAME_MS;
+            dispatch(MotionEvent.obtain(downTime, time, MotionEvent.ACTION_MOVE, x - distance, y, 0));
+        }
+        // 抬起之后不推进帧,恢复动画保持运行.
+        mFixture.recyclerView.dispatchTouchEvent(MotionEvent.obtain(downTime, time + FRAME_MS,
+                MotionEvent.ACTION_UP, x - distance, y, 0));
+    }
+
+    private void dispatch(MotionEvent event) {
+        mFixture.recyclerView.dispatchTouchEvent(event);
+        mFixture.pumpFrame(FRAME_MS);
+    }
+
+    private void settle() {
+        for (int i = 0; i < 60; i++) {
+            mFixture.pumpFrame(FRAME_MS);
+        }
+    }
+
+    /**
+     * 一直运行,直到调用{@link #finish()};和没有正确结束的ItemAnimator一样,endAnimations()不回调.
+     */
+    private static class HoldingItemAnimator extends DefaultItemAnimator {
+
+        private boolean mRunning = true;
+
+        @Override
+        public boolean isRunning() {
+            return mRunning || super.isRunning();
+        }
+
+        @Override
+        public void endAnimations() {
+            if (!mRunning) {
+                super.endAnimations();
+            }
+        }
+
+        void finish() {
+            mRunning = false;
+            dispatchAnimationsFinished();
+        }
+    }
+
+    private static class RecordingCallback extends WeSwipeCallback {
+
+        boolean batch;
+
+        final List<Integer> swipedPositions = new ArrayList<>();
+
+        final List<int[]> batches = new ArrayList<>();
+
+        @Override
+        public boolean isSwipeBatchEnabled() {
+            return batch;
+        }
+
+        @Override
+        public void onSwiped(RecyclerView.ViewHolder viewHolder, int direction) {
+            swipedPositions.add(viewHolder.getAdapterPosition());
+        }
+
+        @Override
+        public void onSwipedBatch(int[] adapterPositions) {
+            batches.add(adapterPositions);
+        }
+    }
+}
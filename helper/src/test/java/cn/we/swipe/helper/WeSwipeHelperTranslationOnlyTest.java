@@ -0,0 +1,84 @@
+package cn.we.swipe.helper;
+
+import android.graphics.Canvas;
+import android.support.v7.widget.RecyclerView;
+import android.view.MotionEvent;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created to : Callback只设置平移的时候,侧滑过程中直接更新平移,不重绘RecyclerView.
+ *
+ * @author WANG
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class WeSwipeHelperTranslationOnlyTest {
+
+    private static final int STEPS = 12;
+
+    @Test
+    public void defaultCallback_movesFrontWithoutInvalidate() {
+        final SwipeTestFixture.CountingRecyclerView recyclerView =
+                new SwipeTestFixture.CountingRecyclerView(RuntimeEnvironment.application);
+        final SwipeTestFixture fixture = new SwipeTestFixture(recyclerView, 20);
+        attach(fixture, new WeSwipeCallback());
+
+        final int invalidates = swipeWithoutDrawing(fixture, recyclerView);
+
+        // 没有绘制,平移已经跟着手指了.
+        assertEquals(-SwipeTestFixture.MENU_WIDTH, fixture.holderAt(2).front.getTranslationX(), 1f);
+        assertTrue("invalidates: " + invalidates, invalidates < STEPS / 2);
+    }
+
+    @Test
+    public void drawingCallback_keepsInvalidating() {
+        final SwipeTestFixture.CountingRecyclerView recyclerView =
+                new SwipeTestFixture.CountingRecyclerView(RuntimeEnvironment.application);
+        final SwipeTestFixture fixture = new SwipeTestFixture(recyclerView, 20);
+        attach(fixture, new WeSwipeCallback() {
+            @Override
+            public void onChildDraw(Canvas c, RecyclerView recyclerView, RecyclerView.ViewHolder viewHolder,
+                                    View swipeView, float dX, float dY, int actionState,
+                                    boolean isCurrentlyActive, float swipeWidth) {
+                super.onChildDraw(c, recyclerView, viewHolder, swipeView, dX, dY, actionState,
+                        isCurrentlyActive, swipeWidth);
+            }
+        });
+
+        final int invalidates = swipeWithoutDrawing(fixture, recyclerView);
+
+        assertTrue("invalidates: " + invalidates, invalidates >= STEPS - 1);
+    }
+
+    private static void attach(SwipeTestFixture fixture, WeSwipeHelper.Callback callback) {
+        final WeSwipeHelper helper = new WeSwipeHelper(callback);
+        helper.setItemSlideType(WeSwipeHelper.SWIPE_ITEM_TYPE_DEFAULT);
+        helper.attachToRecyclerView(fixture.recyclerView);
+    }
+
+    /**
+     * 只分发按下和移动,不绘制.
+     *
+     * @return 移动过程中invalidate的次数.
+     */
+    private static int swipeWithoutDrawing(SwipeTestFixture fixture,
+                                           SwipeTestFixture.CountingRecyclerView recyclerView) {
+        final MotionEvent[] events = SwipeTestFixture.swipeLeft(SwipeTestFixture.WIDTH - 60,
+                SwipeTestFixture.centerYOf(2), 600, STEPS, 16);
+        recyclerView.dispatchTouchEvent(events[0]);
+        recyclerView.resetCounts();
+        for (int i = 1; i <= STEPS; i++) {
+            recyclerView.dispatchTouchEvent(events[i]);
+        }
+        return recyclerView.invalidateCount;
+    }
+}
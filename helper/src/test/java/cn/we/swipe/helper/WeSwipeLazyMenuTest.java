@@ -0,0 +1,183 @@
+package cn.we.swipe.helper;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.support.v7.widget.RecyclerView;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created to : {@link SwipeMenuProvider}的菜单在开始侧滑,或者恢复打开的状态的时候才添加.
+ *
+ * @author WANG
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class WeSwipeLazyMenuTest {
+
+    private static final long FRAME_MS = 16;
+
+    private SwipeTestFixture mFixture;
+
+    @Before
+    public void setUp() {
+        RecyclerView recyclerView = new RecyclerView(RuntimeEnvironment.application);
+        mFixture = new SwipeTestFixture(recyclerView, 200, true);
+        recyclerView.setAdapter(new LazyMenuAdapter());
+        mFixture.layout();
+        WeSwipeHelper helper = new WeSwipeHelper(new WeSwipeCallback());
+        helper.setItemSlideType(WeSwipeHelper.SWIPE_ITEM_TYPE_DEFAULT);
+        helper.setCloseOnScroll(false);
+        helper.attachToRecyclerView(recyclerView);
+    }
+
+    @Test
+    public void swipe_addsMenuOnlyToSwipedRow() {
+        assertNull(holderAt(2).getMenu());
+
+        swipeOpen(2);
+
+        assertNotNull(holderAt(2).getMenu());
+        assertNull(holderAt(3).getMenu());
+        assertEquals(-SwipeTestFixture.MENU_WIDTH, holderAt(2).front.getTranslationX(), 1f);
+    }
+
+    @Test
+    public void openRowOnFreshHolder_getsMenu() {
+        // 不复用,滑回来的时候一定是新的ViewHolder.
+        mFixture.recyclerView.setItemViewCacheSize(0);
+        mFixture.recyclerView.getRecycledViewPool().setMaxRecycledViews(0, 0);
+        swipeOpen(2);
+        final LazyMenuHolder opened = holderAt(2);
+
+        mFixture.recyclerView.scrollToPosition(150);
+        mFixture.layout();
+        mFixture.recyclerView.scrollToPosition(0);
+        mFixture.layout();
+
+        final LazyMenuHolder back = holderAt(2);
+        assertNotSame(opened, back);
+        assertEquals(-SwipeTestFixture.MENU_WIDTH, back.front.getTranslationX(), 1f);
+        assertNotNull(back.getMenu());
+        assertEquals(View.VISIBLE, back.getMenu().getVisibility());
+        // 菜单是在layout之前添加的,不能按照还没有layout的位置裁剪掉.
+        final Rect clip = back.getMenu().getClipBounds();
+        assertTrue(clip == null || !clip.isEmpty());
+    }
+
+    private LazyMenuHolder holderAt(int position) {
+        return (LazyMenuHolder) mFixture.recyclerView.findViewHolderForAdapterPosition(position);
+    }
+
+    private void swipeOpen(int position) {
+        for (MotionEvent event : SwipeTestFixture.swipeLeft(SwipeTestFixture.WIDTH - 60,
+                SwipeTestFixture.centerYOf(position), 600, 12, FRAME_MS)) {
+            mFixture.recyclerView.dispatchTouchEvent(event);
+            mFixture.pumpFrame(FRAME_MS);
+        }
+        for (int i = 0; i < 50; i++) {
+            mFixture.pumpFrame(FRAME_MS);
+        }
+    }
+
+    private static class LazyMenuAdapter extends RecyclerView.Adapter<LazyMenuHolder> {
+
+        LazyMenuAdapter() {
+            setHasStableIds(true);
+        }
+
+        @Override
+        public LazyMenuHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+            Context context = parent.getContext();
+            FrameLayout root = new FrameLayout(context);
+            root.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                    SwipeTestFixture.ITEM_HEIGHT));
+            View front = new View(context);
+            root.addView(front, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                    ViewGroup.LayoutParams.MATCH_PARENT));
+            return new LazyMenuHolder(root, front);
+        }
+
+        @Override
+        public void onBindViewHolder(LazyMenuHolder holder, int position) {
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return SwipeTestFixture.TestAdapter.idOf(position);
+        }
+
+        @Override
+        public int getItemCount() {
+            return 200;
+        }
+    }
+
+    private static class LazyMenuHolder extends RecyclerView.ViewHolder
+            implements WeSwipeHelper.SwipeMenuCallBack, SwipeMenuProvider {
+
+        final View front;
+
+        private View mMenu;
+
+        LazyMenuHolder(View itemView, View front) {
+            super(itemView);
+            this.front = front;
+        }
+
+        @Override
+        public float getSwipeWidth() {
+            return SwipeTestFixture.MENU_WIDTH;
+        }
+
+        @Override
+        public View needSwipeLayout() {
+            return front;
+        }
+
+        @Override
+        public View onScreenView() {
+            return front;
+        }
+
+        @Override
+        public View getMenuView() {
+            return mMenu;
+        }
+
+        @Override
+        public int getMenuLayoutId() {
+            return android.R.layout.simple_list_item_1;
+        }
+
+        @Override
+        public ViewGroup getMenuParent() {
+            return (ViewGroup) itemView;
+        }
+
+        @Override
+        public View getMenu() {
+            return mMenu;
+        }
+
+        @Override
+        public void onMenuAttached(View menu) {
+            mMenu = menu;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package cn.we.swipe.helper;
+
+import android.graphics.Rect;
+import android.view.MotionEvent;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Created to : DEFAULT类型的菜单关闭的时候不可见,侧滑的时候只绘制露出来的部分.
+ *
+ * @author WANG
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class WeSwipeMenuClipTest {
+
+    private static final long FRAME_MS = 16;
+
+    private SwipeTestFixture mFixture;
+
+    private WeSwipeHelper mHelper;
+
+    @Before
+    public void setUp() {
+        mFixture = new SwipeTestFixture(20);
+        mHelper = new WeSwipeHelper(new WeSwipeCallback());
+        mHelper.setItemSlideType(WeSwipeHelper.SWIPE_ITEM_TYPE_DEFAULT);
+        mHelper.attachToRecyclerView(mFixture.recyclerView);
+    }
+
+    @Test
+    public void closedRows_hideMenu() {
+        for (int i = 0; i < mFixture.recyclerView.getChildCount(); i++) {
+            assertEquals(View.INVISIBLE, mFixture.holderAt(i).menu.getVisibility());
+        }
+    }
+
+    @Test
+    public void swipe_clipsMenuToRevealedPart() {
+        final SwipeTestFixture.TestHolder holder = mFixture.holderAt(2);
+        final MotionEvent[] events = SwipeTestFixture.swipeLeft(SwipeTestFixture.WIDTH - 60,
+                SwipeTestFixture.centerYOf(2), 200, 8, FRAME_MS);
+        for (int i = 0; i < events.length - 1; i++) {
+            mFixture.recyclerView.dispatchTouchEvent(events[i]);
+            mFixture.pumpFrame(FRAME_MS);
+        }
+
+        assertEquals(View.VISIBLE, holder.menu.getVisibility());
+        final Rect clip = holder.menu.getClipBounds();
+        assertNotNull(clip);
+        assertEquals(-holder.front.getTranslationX(), clip.width(), 1f);
+        assertEquals(holder.menu.getWidth(), clip.right);
+    }
+
+    @Test
+    public void closeEnd_hidesMenuAgain() {
+        final SwipeTestFixture.TestHolder holder = mFixture.holderAt(2);
+        for (MotionEvent event : SwipeTestFixture.swipeLeft(SwipeTestFixture.WIDTH - 60,
+                SwipeTestFixture.centerYOf(2), 600, 12, FRAME_MS)) {
+            mFixture.recyclerView.dispatchTouchEvent(event);
+            mFixture.pumpFrame(FRAME_MS);
+        }
+        settle();
+        assertEquals(View.VISIBLE, holder.menu.getVisibility());
+
+        // 切换到多开模式的时候会关闭之前打开的Item.
+        mHelper.setMultiOpen(true);
+        settle();
+
+        assertEquals(0f, holder.front.getTranslationX(), 0f);
+        assertEquals(View.INVISIBLE, holder.menu.getVisibility());
+    }
+
+    @Test
+    public void otherType_showsMenu() {
+        mHelper.setItemSlideType(WeSwipeHelper.SWIPE_ITEM_TYPE_FLOWING);
+
+        assertEquals(View.VISIBLE, mFixture.holderAt(2).menu.getVisibility());
+    }
+
+    private void settle() {
+        for (int i = 0; i < 50; i++) {
+            mFixture.pumpFrame(FRAME_MS);
+        }
+    }
+}
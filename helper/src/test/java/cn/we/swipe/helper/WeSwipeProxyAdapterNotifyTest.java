@@ -0,0 +1,259 @@
+package cn.we.swipe.helper;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.MotionEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created to : proxyNotify*在有打开的Item时的分发方式.
+ *
+ * @author WANG
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class WeSwipeProxyAdapterNotifyTest {
+
+    private static final long FRAME_MS = 16;
+
+    private static final int ITEM_COUNT = 30;
+
+    private SwipeTestFixture mFixture;
+
+    private WeSwipe mWeSwipe;
+
+    private final CountingObserver mObserver = new CountingObserver();
+
+    @Before
+    public void setUp() {
+        mFixture = new SwipeTestFixture(ITEM_COUNT);
+        mWeSwipe = WeSwipe.attach(mFixture.recyclerView).setType(WeSwipeHelper.SWIPE_ITEM_TYPE_DEFAULT);
+        mFixture.adapter.setWeSwipe(mWeSwipe);
+        mFixture.adapter.registerAdapterDataObserver(mObserver);
+    }
+
+    @Test
+    public void notificationsWhileRecovering_flushOnceMerged() {
+        openRow(3);
+
+        mFixture.adapter.setItemCount(ITEM_COUNT - 2);
+        mFixture.adapter.proxyNotifyItemRemoved(5);
+        mFixture.adapter.proxyNotifyItemRemoved(5);
+        mFixture.adapter.proxyNotifyItemChanged(7);
+        assertEquals(0, mObserver.total());
+
+        settle();
+
+        assertFalse(mWeSwipe.haveRecoverItem());
+        assertEquals(1, mObserver.removed);
+        assertEquals(2, mObserver.lastRemovedCount);
+        assertEquals(1, mObserver.changed);
+    }
+
+    @Test
+    public void closeAgainWhileFlushPending_reusesRunningClose() {
+        openRow(3);
+        final SwipeTestFixture.TestHolder holder = mFixture.holderAt(3);
+        mFixture.adapter.proxyNotifyItemChanged(7);
+        mFixture.pumpFrame(FRAME_MS);
+        mFixture.pumpFrame(FRAME_MS);
+
+        // 关闭动画还没有结束,切换模式的时候再次关闭这个Item.
+        mWeSwipe.setMultiOpen(true);
+        for (int i = 0; i < 50; i++) {
+            mFixture.pumpFrame(FRAME_MS);
+            if (mObserver.changed > 0) {
+                assertEquals("flushed before the row closed", 0f, holder.front.getTranslationX(), 0f);
+            }
+        }
+
+        assertEquals(1, mObserver.changed);
+        assertEquals(0f, holder.front.getTranslationX(), 0f);
+        assertFalse(mWeSwipe.haveRecoverItem());
+    }
+
+    @Test
+    public void grabDuringProxyClose_waitsUntilRowCloses() {
+        openRow(3);
+        final SwipeTestFixture.TestHolder holder = mFixture.holderAt(3);
+        mFixture.adapter.proxyNotifyItemChanged(7);
+        mFixture.pumpFrame(FRAME_MS);
+        mFixture.pumpFrame(FRAME_MS);
+
+        final MotionEvent[] events = SwipeTestFixture.drag(500, SwipeTestFixture.centerYOf(3),
+                SwipeTestFixture.MENU_WIDTH, 0, 8, FRAME_MS);
+        mFixture.recyclerView.dispatchTouchEvent(events[0]);
+        for (int i = 0; i < 30; i++) {
+            mFixture.pumpFrame(FRAME_MS);
+        }
+        // 手指按住半开的Item,刷新继续等待.
+        assertEquals(0, mObserver.total());
+        assertTrue(holder.front.getTranslationX() < 0);
+        assertTrue(mWeSwipe.haveRecoverItem());
+
+        for (int i = 1; i < events.length; i++) {
+            mFixture.recyclerView.dispatchTouchEvent(events[i]);
+            mFixture.pumpFrame(FRAME_MS);
+        }
+        settle();
+
+        assertEquals(0f, holder.front.getTranslationX(), 0f);
+        assertEquals(1, mObserver.changed);
+    }
+
+    @Test
+    public void grabDuringProxyClose_reopenedRowClosesBeforeFlush() {
+        openRow(3);
+        final SwipeTestFixture.TestHolder holder = mFixture.holderAt(3);
+        mFixture.adapter.proxyNotifyItemChanged(7);
+        mFixture.pumpFrame(FRAME_MS);
+        mFixture.pumpFrame(FRAME_MS);
+
+        // 接管之后重新打开,松手之后再次关闭,然后才刷新.
+        for (MotionEvent event : SwipeTestFixture.swipeLeft(SwipeTestFixture.WIDTH - 60,
+                SwipeTestFixture.centerYOf(3), 600, 12, FRAME_MS)) {
+            mFixture.recyclerView.dispatchTouchEvent(event);
+            mFixture.pumpFrame(FRAME_MS);
+        }
+        assertEquals(0, mObserver.total());
+
+        settle();
+        assertEquals(0f, holder.front.getTranslationX(), 0f);
+        assertEquals(1, mObserver.changed);
+    }
+
+    @Test
+    public void immediateNotify_snapsOnlyCoveredRow() {
+        mFixture.adapter.setImmediateNotify(true);
+        openRow(3);
+
+        mFixture.adapter.setItemCount(ITEM_COUNT + 1);
+        mFixture.adapter.proxyNotifyItemInserted(0);
+        assertEquals(1, mObserver.inserted);
+        settle();
+        assertTrue(mWeSwipe.haveRecoverItem());
+        assertEquals(-SwipeTestFixture.MENU_WIDTH, mFixture.holderAt(4).front.getTranslationX(), 1f);
+
+        mFixture.adapter.proxyNotifyItemChanged(4);
+        assertEquals(1, mObserver.changed);
+        assertFalse(mWeSwipe.haveRecoverItem());
+        assertEquals(0f, mFixture.holderAt(4).front.getTranslationX(), 0f);
+    }
+
+    @Test
+    public void payloadKeepOpen_rebindsWithoutClosing() {
+        openRow(3);
+        final SwipeTestFixture.TestHolder holder = mFixture.holderAt(3);
+        final int bindCount = holder.bindCount;
+
+        mFixture.adapter.proxyNotifyItemChanged(3, "badge", true);
+        assertEquals(1, mObserver.changed);
+        settle();
+
+        assertTrue(mWeSwipe.haveRecoverItem());
+        // 同一个ViewHolder只收到payload,没有完整的重新绑定.
+        assertSame(holder, mFixture.holderAt(3));
+        assertEquals(1, holder.payloadBindCount);
+        assertEquals(bindCount, holder.bindCount);
+        assertEquals(-SwipeTestFixture.MENU_WIDTH, holder.front.getTranslationX(), 1f);
+    }
+
+    @Test
+    public void payloadRangeKeepOpen_onlyBindsPayloads() {
+        openRow(3);
+        final SwipeTestFixture.TestHolder holder = mFixture.holderAt(3);
+        final int bindCount = holder.bindCount;
+        final int neighbourBindCount = mFixture.holderAt(4).bindCount;
+
+        mFixture.adapter.proxyNotifyItemRangeChanged(2, 3, "badge", true);
+        settle();
+
+        assertTrue(mWeSwipe.haveRecoverItem());
+        assertEquals(bindCount, holder.bindCount);
+        assertEquals(1, holder.payloadBindCount);
+        assertEquals(neighbourBindCount, mFixture.holderAt(4).bindCount);
+        assertEquals(1, mFixture.holderAt(4).payloadBindCount);
+        assertEquals(-SwipeTestFixture.MENU_WIDTH, holder.front.getTranslationX(), 1f);
+    }
+
+    @Test
+    public void swipeItemAnimator_removesOpenRowWithoutClosingFirst() {
+        mFixture.recyclerView.setItemAnimator(new WeSwipeItemAnimator());
+        openRow(3);
+        final SwipeTestFixture.TestHolder holder = mFixture.holderAt(3);
+
+        mFixture.adapter.setItemCount(ITEM_COUNT - 1);
+        mFixture.adapter.proxyNotifyItemRemoved(3);
+        assertEquals(1, mObserver.removed);
+        assertFalse(mWeSwipe.haveRecoverItem());
+        assertEquals(-SwipeTestFixture.MENU_WIDTH, holder.front.getTranslationX(), 1f);
+
+        settle();
+
+        assertFalse(mFixture.recyclerView.getItemAnimator().isRunning());
+        assertEquals(0f, holder.front.getTranslationX(), 0f);
+        assertEquals(1f, holder.itemView.getAlpha(), 0f);
+    }
+
+    private void openRow(int position) {
+        MotionEvent[] events = SwipeTestFixture.swipeLeft(SwipeTestFixture.WIDTH - 60,
+                SwipeTestFixture.centerYOf(position), 600, 12, FRAME_MS);
+        for (MotionEvent event : events) {
+            mFixture.recyclerView.dispatchTouchEvent(event);
+            mFixture.pumpFrame(FRAME_MS);
+        }
+        settle();
+        assertTrue(mWeSwipe.haveRecoverItem());
+    }
+
+    private void settle() {
+        for (int i = 0; i < 50; i++) {
+            mFixture.pumpFrame(FRAME_MS);
+        }
+    }
+
+    private static class CountingObserver extends RecyclerView.AdapterDataObserver {
+
+        int changed;
+
+        int inserted;
+
+        int removed;
+
+        int lastRemovedCount;
+
+        int total() {
+            return changed + inserted + removed;
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            changed++;
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            changed++;
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            inserted++;
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            removed++;
+            lastRemovedCount = itemCount;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package cn.we.swipe.helper;
+
+import android.support.v7.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created to : {@link WeSwipeProxyAdapter#submitList(List, WeSwipeDiffCallback)}在后台计算差异,只刷新变化的部分.
+ *
+ * @author WANG
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class WeSwipeProxyAdapterSubmitListTest {
+
+    private SwipeTestFixture mFixture;
+
+    private final StringListCallback mCallback = new StringListCallback();
+
+    private final CountingObserver mObserver = new CountingObserver();
+
+    @Before
+    public void setUp() {
+        mCallback.current = items(10);
+        mFixture = new SwipeTestFixture(mCallback.current.size());
+        mFixture.adapter.registerAdapterDataObserver(mObserver);
+    }
+
+    @Test
+    public void append_dispatchesOnlyInsertions() {
+        List<String> newList = items(12);
+        mFixture.adapter.submitList(newList, mCallback);
+        waitUntilApplied();
+
+        assertSame(newList, mCallback.current);
+        assertEquals(1, mObserver.inserted);
+        assertEquals(0, mObserver.changed);
+        assertEquals(0, mObserver.fullRefresh);
+    }
+
+    @Test
+    public void newerSubmission_supersedesPendingOne() {
+        mFixture.adapter.submitList(items(20), mCallback);
+        List<String> latest = items(11);
+        mFixture.adapter.submitList(latest, mCallback);
+        waitUntilApplied();
+        // 等待可能晚到的旧结果.
+        for (int i = 0; i < 10; i++) {
+            idle();
+        }
+
+        assertSame(latest, mCallback.current);
+        assertEquals(1, mCallback.replaced);
+    }
+
+    private void waitUntilApplied() {
+        for (int i = 0; i < 400 && mCallback.replaced == 0; i++) {
+            idle();
+        }
+        assertTrue("submitList was not applied", mCallback.replaced > 0);
+    }
+
+    private static void idle() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+        ShadowLooper.idleMainLooper();
+    }
+
+    private static List<String> items(int count) {
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            list.add("item " + i);
+        }
+        return list;
+    }
+
+    private class StringListCallback extends WeSwipeDiffCallback<String> {
+
+        List<String> current;
+
+        int replaced;
+
+        @Override
+        public List<String> getCurrentList() {
+            return current;
+        }
+
+        @Override
+        public void setCurrentList(List<String> newList) {
+            current = newList;
+            replaced++;
+            mFixture.adapter.setItemCount(newList.size());
+        }
+
+        @Override
+        public boolean areItemsTheSame(String oldItem, String newItem) {
+            return oldItem.equals(newItem);
+        }
+
+        @Override
+        public boolean areContentsTheSame(String oldItem, String newItem) {
+            return oldItem.equals(newItem);
+        }
+    }
+
+    private static class CountingObserver extends RecyclerView.AdapterDataObserver {
+
+        int inserted;
+
+        int changed;
+
+        int fullRefresh;
+
+        @Override
+        public void onChanged() {
+            fullRefresh++;
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            changed++;
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            changed++;
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            inserted++;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package cn.we.swipe.helper;
+
+import android.view.MotionEvent;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Properties;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Created to : 回放脚本化的触摸事件,统计每个场景的性能数据并和baseline比较.
+ * <p>
+ * 每个场景统计: 每个事件的CPU时间, 每个事件分配的内存, RecyclerView的invalidate次数和布局次数.
+ * baseline在src/test/resources/weswipe-replay-baseline.properties中,没有记录的场景跳过比较.
+ * 本次的结果写到build/reports/weswipe-replay/results.properties,需要更新baseline的时候把结果复制过去.
+ *
+ * @author WANG
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class WeSwipeReplayPerformanceTest {
+
+    private static final String BASELINE = "weswipe-replay-baseline.properties";
+
+    private static final File RESULTS = new File("build/reports/weswipe-replay/results.properties");
+
+    private static final int ITEM_COUNT = 10000;
+
+    private static final long FRAME_MS = 16;
+
+    /**
+     * 动画的时长都小于这个值,包括postDispatchSwipe的等待.
+     */
+    private static final long SETTLE_MS = 800;
+
+    private static final int WARM_UP_ROUNDS = 5;
+
+    private static final int ROUNDS = 10;
+
+    /**
+     * CPU时间受机器和负载的影响,超过baseline的两倍才算退化.
+     */
+    private static final float CPU_TOLERANCE = 2f;
+
+    private static final float ALLOCATION_TOLERANCE = 1.2f;
+
+    private static final long ALLOCATION_SLACK_BYTES = 256;
+
+    private static final Properties sResults = new Properties();
+
+    @AfterClass
+    public static void writeResults() throws IOException {
+        File dir = RESULTS.getParentFile();
+        if (!dir.exists() && !dir.mkdirs()) {
+            return;
+        }
+        OutputStream out = new FileOutputStream(RESULTS);
+        try {
+            sResults.store(out, "WeSwipe gesture replay, copy to src/test/resources/" + BASELINE);
+        } finally {
+            out.close();
+        }
+    }
+
+    @Test
+    public void swipeOpen() {
+        measure("swipe_open", new Scenario() {
+            @Override
+            MotionEvent[] prepare(Harness h) {
+                return SwipeTestFixture.swipeLeft(SwipeTestFixture.WIDTH - 60,
+                        SwipeTestFixture.centerYOf(3), 600, 12, FRAME_MS);
+            }
+        });
+    }
+
+    @Test
+    public void tapMenuAction() {
+        measure("tap_menu", new Scenario() {
+            @Override
+            MotionEvent[] prepare(Harness h) {
+                h.openRow(3);
+                return SwipeTestFixture.tap(SwipeTestFixture.WIDTH - SwipeTestFixture.MENU_WIDTH / 2f,
+                        SwipeTestFixture.centerYOf(3));
+            }
+        });
+    }
+
+    @Test
+    public void swipeWhileAnotherRowIsOpen() {
+        measure("swipe_while_open", new Scenario() {
+            @Override
+            MotionEvent[] prepare(Harness h) {
+                h.openRow(2);
+                return SwipeTestFixture.swipeLeft(SwipeTestFixture.WIDTH - 60,
+                        SwipeTestFixture.centerYOf(5), 600, 12, FRAME_MS);
+            }
+        });
+    }
+
+    @Test
+    public void flingListWhileRowIsOpen() {
+        measure("fling_while_open", new Scenario() {
+            @Override
+            MotionEvent[] prepare(Harness h) {
+                h.openRow(2);
+                return SwipeTestFixture.drag(SwipeTestFixture.WIDTH / 2f, SwipeTestFixture.centerYOf(11),
+                        0, -1400, 8, FRAME_MS);
+            }
+        });
+    }
+
+    @Test
+    public void notifyStormDuringRecover() {
+        measure("notify_storm_during_recover", new Scenario() {
+            @Override
+            MotionEvent[] prepare(Harness h) {
+                h.openRow(2);
+                // 按在其他的Item上,打开的Item开始关闭.
+                return SwipeTestFixture.tap(SwipeTestFixture.WIDTH / 2f, SwipeTestFixture.centerYOf(6));
+            }
+
+            @Override
+            void afterEvent(Harness h, int index) {
+                if (index != 0) {
+                    return;
+                }
+                for (int frame = 0; frame < 3; frame++) {
+                    for (int position = 0; position < 20; position++) {
+                        h.fixture.adapter.proxyNotifyItemChanged(position);
+                    }
+                    h.fixture.pumpFrame(FRAME_MS);
+                }
+            }
+        });
+    }
+
+    private void measure(String name, Scenario scenario) {
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            runRound(scenario, null);
+        }
+        final Result result = new Result();
+        for (int i = 0; i < ROUNDS; i++) {
+            runRound(scenario, result);
+        }
+        final long cpuPerEvent = result.cpuNanos / result.events;
+        final long bytesPerEvent = result.allocatedBytes / result.events;
+        final long invalidates = result.invalidates / ROUNDS;
+        final long layouts = result.layouts / ROUNDS;
+        final String[] keys = {name + ".cpuNanosPerEvent", name + ".allocatedBytesPerEvent",
+                name + ".invalidates", name + ".layouts"};
+        final long[] values = {cpuPerEvent, bytesPerEvent, invalidates, layouts};
+        for (int i = 0; i < keys.length; i++) {
+            sResults.setProperty(keys[i], String.valueOf(values[i]));
+        }
+        final String summary = name + ": " + cpuPerEvent + " ns/event, " + bytesPerEvent + " bytes/event, "
+                + invalidates + " invalidates, " + layouts + " layouts";
+
+        final Properties baseline = loadBaseline();
+        // 还没有记录baseline的场景跳过比较,结果仍然写到RESULTS中,跳过的原因中有需要记录的数据.
+        final StringBuilder missing = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            if (baseline.getProperty(keys[i]) == null) {
+                missing.append('\n').append(keys[i]).append('=').append(values[i]);
+            }
+        }
+        assumeTrue("no baseline for " + summary + ", add to src/test/resources/" + BASELINE + ":" + missing,
+                missing.length() == 0);
+        checkNotWorse(baseline, summary, keys[0], cpuPerEvent, CPU_TOLERANCE, 0);
+        checkNotWorse(baseline, summary, keys[1], bytesPerEvent, ALLOCATION_TOLERANCE, ALLOCATION_SLACK_BYTES);
+        checkNotWorse(baseline, summary, keys[2], invalidates, 1f, 0);
+        checkNotWorse(baseline, summary, keys[3], layouts, 1f, 0);
+    }
+
+    /**
+     * 每一轮都使用新的RecyclerView,准备的部分不计入统计.
+     */
+    private void runRound(Scenario scenario, Result result) {
+        final Harness h = new Harness();
+        final MotionEvent[] stream = scenario.prepare(h);
+        h.fixture.pumpFrame(FRAME_MS);
+        h.recyclerView.resetCounts();
+
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        final long cpuStart = threads.getCurrentThreadCpuTime();
+        final long bytesStart = SwipeTestFixture.allocatedBytes();
+        for (int i = 0; i < stream.length; i++) {
+            h.recyclerView.dispatchTouchEvent(stream[i]);
+            h.fixture.pumpFrame(FRAME_MS);
+            scenario.afterEvent(h, i);
+        }
+        h.settle();
+        final long bytes = SwipeTestFixture.allocatedBytes() - bytesStart;
+        final long cpu = threads.getCurrentThreadCpuTime() - cpuStart;
+
+        if (result != null) {
+            result.events += stream.length;
+            result.cpuNanos += cpu;
+            result.allocatedBytes += bytes;
+            result.invalidates += h.recyclerView.invalidateCount;
+            result.layouts += h.recyclerView.layoutCount;
+        }
+        for (MotionEvent event : stream) {
+            event.recycle();
+        }
+    }
+
+    private static void checkNotWorse(Properties baseline, String summary, String key, long actual,
+                                      float tolerance, long slack) {
+        final long expected = Long.parseLong(baseline.getProperty(key).trim());
+        final long limit = (long) (expected * tolerance) + slack;
+        assertTrue(key + " regressed: " + actual + " > " + limit + " (baseline " + expected + "), " + summary,
+                actual <= limit);
+    }
+
+    private static Properties loadBaseline() {
+        Properties baseline = new Properties();
+        InputStream in = WeSwipeReplayPerformanceTest.class.getClassLoader().getResourceAsStream(BASELINE);
+        if (in == null) {
+            return baseline;
+        }
+        try {
+            baseline.load(in);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        } finally {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+            }
+        }
+        return baseline;
+    }
+
+    private abstract static class Scenario {
+
+        /**
+         * 准备场景,返回需要回放的事件.事件要在最后创建,保证和主线程的时钟一致.
+         */
+        abstract MotionEvent[] prepare(Harness h);
+
+        /**
+         * 每个事件分发并且过了一帧之后调用.
+         */
+        void afterEvent(Harness h, int index) {
+        }
+    }
+
+    private static class Harness {
+
+        final SwipeTestFixture.CountingRecyclerView recyclerView;
+
+        final SwipeTestFixture fixture;
+
+        final WeSwipe weSwipe;
+
+        Harness() {
+            recyclerView = new SwipeTestFixture.CountingRecyclerView(RuntimeEnvironment.application);
+            fixture = new SwipeTestFixture(recyclerView, ITEM_COUNT);
+            weSwipe = WeSwipe.attach(recyclerView).setType(WeSwipeHelper.SWIPE_ITEM_TYPE_DEFAULT);
+            fixture.adapter.setWeSwipe(weSwipe);
+        }
+
+        void openRow(int position) {
+            MotionEvent[] stream = SwipeTestFixture.swipeLeft(SwipeTestFixture.WIDTH - 60,
+                    SwipeTestFixture.centerYOf(position), 600, 12, FRAME_MS);
+            for (MotionEvent event : stream) {
+                recyclerView.dispatchTouchEvent(event);
+                fixture.pumpFrame(FRAME_MS);
+                event.recycle();
+            }
+            settle();
+            assertTrue("row " + position + " did not open", weSwipe.haveRecoverItem());
+        }
+
+        void settle() {
+            for (long elapsed = 0; elapsed < SETTLE_MS; elapsed += FRAME_MS) {
+                fixture.pumpFrame(FRAME_MS);
+            }
+        }
+    }
+
+    private static class Result {
+
+        long events;
+
+        long cpuNanos;
+
+        long allocatedBytes;
+
+        long invalidates;
+
+        long layouts;
+    }
+}
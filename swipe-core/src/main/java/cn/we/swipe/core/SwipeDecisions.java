@@ -0,0 +1,178 @@
+package cn.we.swipe.core;
+
+import static cn.we.swipe.core.SwipeDirections.DOWN;
+import static cn.we.swipe.core.SwipeDirections.LEFT;
+import static cn.we.swipe.core.SwipeDirections.RIGHT;
+import static cn.we.swipe.core.SwipeDirections.UP;
+
+/**
+ * Created to : 侧滑手势的判断,包括slop的检查,方向的检查,阈值以及逃逸速度的检查.
+ * 所有的参数都是基本类型,不依赖Android,可以在JVM上直接测试.
+ *
+ * @author WANG
+ */
+public final class SwipeDecisions {
+
+    private SwipeDecisions() {
+    }
+
+    /**
+     * @return 移动的距离是否超过了slop.
+     */
+    public static boolean isPastSlop(float dx, float dy, float slop) {
+        return !(Math.abs(dx) < slop && Math.abs(dy) < slop);
+    }
+
+    /**
+     * 移动的方向和LayoutManager可以滚动的方向一致的话,交给RecyclerView去滚动.
+     */
+    public static boolean isScrollGesture(float dx, float dy, boolean canScrollHorizontally,
+                                          boolean canScrollVertically) {
+        final float absDx = Math.abs(dx);
+        final float absDy = Math.abs(dy);
+        if (absDx > absDy && canScrollHorizontally) {
+            return true;
+        }
+        return absDy > absDx && canScrollVertically;
+    }
+
+    /**
+     * 是否可以开始侧滑,移动的主方向必须在允许的方向里面.
+     *
+     * @param dx         相对于按下位置的水平距离.
+     * @param dy         相对于按下位置的垂直距离.
+     * @param slop       最小的滑动距离.
+     * @param swipeFlags SWIPE状态下允许的方向.
+     */
+    public static boolean canStartSwipe(float dx, float dy, float slop, int swipeFlags) {
+        if (swipeFlags == 0) {
+            return false;
+        }
+        final float absDx = Math.abs(dx);
+        final float absDy = Math.abs(dy);
+        if (absDx < slop && absDy < slop) {
+            return false;
+        }
+        if (absDx > absDy) {
+            if (dx < 0 && (swipeFlags & LEFT) == 0) {
+                return false;
+            }
+            if (dx > 0 && (swipeFlags & RIGHT) == 0) {
+                return false;
+            }
+        } else {
+            if (dy < 0 && (swipeFlags & UP) == 0) {
+                return false;
+            }
+            if (dy > 0 && (swipeFlags & DOWN) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param flags          允许的方向.
+     * @param dx             侧滑的距离.
+     * @param hasVelocity    是否有速度数据.
+     * @param xVelocity      水平速度,像素每秒.
+     * @param yVelocity      垂直速度,像素每秒.
+     * @param escapeVelocity 最小的逃逸速度.
+     * @param threshold      距离的阈值.
+     * @return 侧滑成功的方向, 0表示没有成功.
+     */
+    public static int checkHorizontalSwipe(int flags, float dx, boolean hasVelocity, float xVelocity,
+                                           float yVelocity, float escapeVelocity, float threshold) {
+        if ((flags & (LEFT | RIGHT)) != 0) {
+            final int dirFlag = dx > 0 ? RIGHT : LEFT;
+            if (hasVelocity) {
+                final int velDirFlag = xVelocity > 0f ? RIGHT : LEFT;
+                final float absXVelocity = Math.abs(xVelocity);
+                if ((velDirFlag & flags) != 0 && dirFlag == velDirFlag
+                        && absXVelocity >= escapeVelocity
+                        && absXVelocity > Math.abs(yVelocity)) {
+                    return velDirFlag;
+                }
+            }
+            if ((flags & dirFlag) != 0 && Math.abs(dx) > threshold) {
+                return dirFlag;
+            }
+        }
+        return 0;
+    }
+
+    public static int checkVerticalSwipe(int flags, float dy, boolean hasVelocity, float xVelocity,
+                                         float yVelocity, float escapeVelocity, float threshold) {
+        if ((flags & (UP | DOWN)) != 0) {
+            final int dirFlag = dy > 0 ? DOWN : UP;
+            if (hasVelocity) {
+                final int velDirFlag = yVelocity > 0f ? DOWN : UP;
+                final float absYVelocity = Math.abs(yVelocity);
+                if ((velDirFlag & flags) != 0 && velDirFlag == dirFlag
+                        && absYVelocity >= escapeVelocity
+                        && absYVelocity > Math.abs(xVelocity)) {
+                    return velDirFlag;
+                }
+            }
+            if ((flags & dirFlag) != 0 && Math.abs(dy) > threshold) {
+                return dirFlag;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 手指抬起的时候判断侧滑是否成功.
+     *
+     * @param absoluteFlags       SWIPE状态下允许的绝对方向.
+     * @param originalFlags       SWIPE状态下使用者设置的方向,可能包含START,END.
+     * @param layoutDirection     布局方向.
+     * @param horizontalThreshold 水平方向的距离阈值.
+     * @param verticalThreshold   垂直方向的距离阈值.
+     * @return 侧滑成功的方向, 使用者设置的是相对方向的话返回相对方向, 0表示没有成功.
+     */
+    public static int resolveSwipeDirection(int absoluteFlags, int originalFlags, int layoutDirection,
+                                            float dx, float dy, boolean hasVelocity,
+                                            float xVelocity, float yVelocity, float escapeVelocity,
+                                            float horizontalThreshold, float verticalThreshold) {
+        if (absoluteFlags == 0) {
+            return 0;
+        }
+        int swipeDir;
+        if (Math.abs(dx) > Math.abs(dy)) {
+            if ((swipeDir = checkHorizontalSwipe(absoluteFlags, dx, hasVelocity, xVelocity, yVelocity,
+                    escapeVelocity, horizontalThreshold)) > 0) {
+                return toOriginalDirection(swipeDir, originalFlags, layoutDirection);
+            }
+            if ((swipeDir = checkVerticalSwipe(absoluteFlags, dy, hasVelocity, xVelocity, yVelocity,
+                    escapeVelocity, verticalThreshold)) > 0) {
+                return swipeDir;
+            }
+        } else {
+            if ((swipeDir = checkVerticalSwipe(absoluteFlags, dy, hasVelocity, xVelocity, yVelocity,
+                    escapeVelocity, verticalThreshold)) > 0) {
+                return swipeDir;
+            }
+            if ((swipeDir = checkHorizontalSwipe(absoluteFlags, dx, hasVelocity, xVelocity, yVelocity,
+                    escapeVelocity, horizontalThreshold)) > 0) {
+                return toOriginalDirection(swipeDir, originalFlags, layoutDirection);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 没有达到侧滑成功的条件时,平移超过菜单宽度的一半也打开菜单.
+     */
+    public static boolean shouldOpen(float translation, float swipeWidth) {
+        return Math.abs(translation) >= swipeWidth / 2;
+    }
+
+    private static int toOriginalDirection(int swipeDir, int originalFlags, int layoutDirection) {
+        // if swipe dir is not in original flags, it should be the relative direction
+        if ((originalFlags & swipeDir) == 0) {
+            return SwipeDirections.convertToRelativeDirection(swipeDir, layoutDirection);
+        }
+        return swipeDir;
+    }
+}
@@ -0,0 +1,163 @@
+package cn.we.swipe.core;
+
+/**
+ * Created to : 方向以及移动标记的计算,不依赖Android,WeSwipeHelper中的标记计算都委托给该类.
+ * <p>
+ * 移动标记由3组8位组成,前8位是IDLE状态,中间8位是SWIPE状态,最后8位是DRAG状态.
+ *
+ * @author WANG
+ */
+public final class SwipeDirections {
+
+    private SwipeDirections() {
+    }
+
+    public static final int UP = 1;
+
+    public static final int DOWN = 1 << 1;
+
+    public static final int LEFT = 1 << 2;
+
+    public static final int RIGHT = 1 << 3;
+
+    /**
+     * 根据布局方向转换成LEFT或者RIGHT.
+     */
+    public static final int START = LEFT << 2;
+
+    public static final int END = RIGHT << 2;
+
+    public static final int ACTION_STATE_IDLE = 0;
+
+    public static final int ACTION_STATE_SWIPE = 1;
+
+    public static final int ACTION_STATE_DRAG = 2;
+
+    /**
+     * 和ViewCompat.LAYOUT_DIRECTION_LTR的值一致.
+     */
+    public static final int LAYOUT_DIRECTION_LTR = 0;
+
+    public static final int LAYOUT_DIRECTION_RTL = 1;
+
+    public static final int DIRECTION_FLAG_COUNT = 8;
+
+    public static final int ACTION_MODE_IDLE_MASK = (1 << DIRECTION_FLAG_COUNT) - 1;
+
+    public static final int ACTION_MODE_SWIPE_MASK = ACTION_MODE_IDLE_MASK << DIRECTION_FLAG_COUNT;
+
+    public static final int ACTION_MODE_DRAG_MASK = ACTION_MODE_SWIPE_MASK << DIRECTION_FLAG_COUNT;
+
+    public static final int RELATIVE_DIR_FLAGS = START | END
+            | ((START | END) << DIRECTION_FLAG_COUNT)
+            | ((START | END) << (2 * DIRECTION_FLAG_COUNT));
+
+    public static final int ABS_HORIZONTAL_DIR_FLAGS = LEFT | RIGHT
+            | ((LEFT | RIGHT) << DIRECTION_FLAG_COUNT)
+            | ((LEFT | RIGHT) << (2 * DIRECTION_FLAG_COUNT));
+
+    /**
+     * @param dragFlags  可以拖动的方向.
+     * @param swipeFlags 可以侧滑的方向.
+     * @return 组合之后的移动标记.
+     */
+    public static int makeMovementFlags(int dragFlags, int swipeFlags) {
+        return makeFlag(ACTION_STATE_IDLE, swipeFlags | dragFlags)
+                | makeFlag(ACTION_STATE_SWIPE, swipeFlags)
+                | makeFlag(ACTION_STATE_DRAG, dragFlags);
+    }
+
+    public static int makeFlag(int actionState, int directions) {
+        return directions << (actionState * DIRECTION_FLAG_COUNT);
+    }
+
+    /**
+     * 取出某个状态下的方向标记.
+     *
+     * @param movementFlags 移动标记.
+     * @param actionState   {@link #ACTION_STATE_IDLE},{@link #ACTION_STATE_SWIPE}或者{@link #ACTION_STATE_DRAG}.
+     * @return 该状态下的方向标记.
+     */
+    public static int flagsForState(int movementFlags, int actionState) {
+        final int actionStateMask = (1 << (DIRECTION_FLAG_COUNT + DIRECTION_FLAG_COUNT * actionState)) - 1;
+        return (movementFlags & actionStateMask) >> (actionState * DIRECTION_FLAG_COUNT);
+    }
+
+    /**
+     * 取出SWIPE状态下的方向标记.
+     */
+    public static int swipeFlags(int movementFlags) {
+        return (movementFlags & ACTION_MODE_SWIPE_MASK) >> (ACTION_STATE_SWIPE * DIRECTION_FLAG_COUNT);
+    }
+
+    /**
+     * START,END转换成LEFT,RIGHT.
+     */
+    public static int convertToAbsoluteDirection(int flags, int layoutDirection) {
+        int masked = flags & RELATIVE_DIR_FLAGS;
+        if (masked == 0) {
+            return flags; // does not have any relative flags, good.
+        }
+        flags &= ~masked; //remove start / end
+        if (layoutDirection == LAYOUT_DIRECTION_LTR) {
+            // no change. just OR with 2 bits shifted mask and return
+            flags |= masked >> 2; // START is 2 bits after LEFT, END is 2 bits after RIGHT.
+            return flags;
+        } else {
+            // add START flag as RIGHT
+            flags |= ((masked >> 1) & ~RELATIVE_DIR_FLAGS);
+            // first clean start bit then add END flag as LEFT
+            flags |= ((masked >> 1) & RELATIVE_DIR_FLAGS) >> 2;
+        }
+        return flags;
+    }
+
+    /**
+     * LEFT,RIGHT转换成START,END.
+     */
+    public static int convertToRelativeDirection(int flags, int layoutDirection) {
+        int masked = flags & ABS_HORIZONTAL_DIR_FLAGS;
+        if (masked == 0) {
+            return flags; // does not have any abs flags, good.
+        }
+        flags &= ~masked; //remove left / right.
+        if (layoutDirection == LAYOUT_DIRECTION_LTR) {
+            // no change. just OR with 2 bits shifted mask and return
+            flags |= masked << 2; // START is 2 bits after LEFT, END is 2 bits after RIGHT.
+            return flags;
+        } else {
+            // add RIGHT flag as START
+            flags |= ((masked << 1) & ~ABS_HORIZONTAL_DIR_FLAGS);
+            // first clean RIGHT bit then add LEFT flag as END
+            flags |= ((masked << 1) & ABS_HORIZONTAL_DIR_FLAGS) << 2;
+        }
+        return flags;
+    }
+
+    /**
+     * 根据允许的方向限制移动的距离.
+     *
+     * @param dx             水平移动的距离.
+     * @param directionFlags 允许的方向.
+     * @return 限制之后的水平距离.
+     */
+    public static float clampDx(float dx, int directionFlags) {
+        if ((directionFlags & LEFT) == 0) {
+            dx = Math.max(0, dx);
+        }
+        if ((directionFlags & RIGHT) == 0) {
+            dx = Math.min(0, dx);
+        }
+        return dx;
+    }
+
+    public static float clampDy(float dy, int directionFlags) {
+        if ((directionFlags & UP) == 0) {
+            dy = Math.max(0, dy);
+        }
+        if ((directionFlags & DOWN) == 0) {
+            dy = Math.min(0, dy);
+        }
+        return dy;
+    }
+}
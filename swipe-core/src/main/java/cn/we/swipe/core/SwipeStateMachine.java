@@ -0,0 +1,82 @@
+package cn.we.swipe.core;
+
+/**
+ * Created to : 侧滑菜单的打开,关闭状态.
+ * <p>
+ * 状态: 关闭 -> 侧滑中 -> 打开中 -> 打开 -> 关闭中 -> 关闭.
+ * 在菜单打开的状态下按下手指,在菜单关闭之前不会开始新的侧滑.
+ * <p>
+ * 触摸事件仍然由WeSwipeHelper处理,手势和动画的各个阶段通过这里的方法记录状态,
+ * 是否可以开始新的侧滑也由这里决定.
+ *
+ * @author WANG
+ */
+public class SwipeStateMachine {
+
+    public static final int STATE_CLOSED = 0;
+
+    public static final int STATE_SWIPING = 1;
+
+    public static final int STATE_OPENING = 2;
+
+    public static final int STATE_OPEN = 3;
+
+    public static final int STATE_CLOSING = 4;
+
+    private int mState = STATE_CLOSED;
+
+    /**
+     * 在菜单打开的状态下按下了手指,关闭之前不允许新的侧滑.
+     */
+    private boolean mBlocked;
+
+    public int getState() {
+        return mState;
+    }
+
+    public boolean isOpen() {
+        return mState == STATE_OPEN || mState == STATE_OPENING;
+    }
+
+    /**
+     * @return 当前是否可以开始新的侧滑.
+     */
+    public boolean canStartSwipe() {
+        return !mBlocked;
+    }
+
+    /**
+     * 在关闭之前不允许开始新的侧滑.
+     */
+    public void block() {
+        mBlocked = true;
+    }
+
+    /**
+     * 关闭动画已经开始,之后的手势不需要再等它结束.
+     */
+    public void unblock() {
+        mBlocked = false;
+    }
+
+    public void onSwipeStarted() {
+        mState = STATE_SWIPING;
+    }
+
+    public void onOpenStarted() {
+        mState = STATE_OPENING;
+    }
+
+    public void onOpened() {
+        mState = STATE_OPEN;
+    }
+
+    public void onCloseStarted() {
+        mState = STATE_CLOSING;
+    }
+
+    public void onClosed() {
+        mState = STATE_CLOSED;
+        mBlocked = false;
+    }
+}
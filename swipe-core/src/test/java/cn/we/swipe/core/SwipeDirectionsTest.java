@@ -0,0 +1,80 @@
+package cn.we.swipe.core;
+
+import org.junit.Test;
+
+import static cn.we.swipe.core.SwipeDirections.ACTION_STATE_DRAG;
+import static cn.we.swipe.core.SwipeDirections.ACTION_STATE_IDLE;
+import static cn.we.swipe.core.SwipeDirections.ACTION_STATE_SWIPE;
+import static cn.we.swipe.core.SwipeDirections.DOWN;
+import static cn.we.swipe.core.SwipeDirections.END;
+import static cn.we.swipe.core.SwipeDirections.LAYOUT_DIRECTION_LTR;
+import static cn.we.swipe.core.SwipeDirections.LAYOUT_DIRECTION_RTL;
+import static cn.we.swipe.core.SwipeDirections.LEFT;
+import static cn.we.swipe.core.SwipeDirections.RIGHT;
+import static cn.we.swipe.core.SwipeDirections.START;
+import static cn.we.swipe.core.SwipeDirections.UP;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SwipeDirectionsTest {
+
+    @Test
+    public void makeMovementFlags_splitsByActionState() {
+        int flags = SwipeDirections.makeMovementFlags(UP | DOWN, LEFT);
+        assertEquals(UP | DOWN | LEFT, SwipeDirections.flagsForState(flags, ACTION_STATE_IDLE));
+        assertEquals(LEFT, SwipeDirections.flagsForState(flags, ACTION_STATE_SWIPE));
+        assertEquals(UP | DOWN, SwipeDirections.flagsForState(flags, ACTION_STATE_DRAG));
+        assertEquals(LEFT, SwipeDirections.swipeFlags(flags));
+    }
+
+    @Test
+    public void convertToAbsoluteDirection_resolvesStartAndEnd() {
+        int flags = SwipeDirections.makeMovementFlags(0, START);
+        int ltr = SwipeDirections.convertToAbsoluteDirection(flags, LAYOUT_DIRECTION_LTR);
+        int rtl = SwipeDirections.convertToAbsoluteDirection(flags, LAYOUT_DIRECTION_RTL);
+        assertEquals(LEFT, SwipeDirections.swipeFlags(ltr));
+        assertEquals(RIGHT, SwipeDirections.swipeFlags(rtl));
+        assertEquals(RIGHT, SwipeDirections.convertToAbsoluteDirection(END, LAYOUT_DIRECTION_LTR));
+        assertEquals(LEFT, SwipeDirections.convertToAbsoluteDirection(END, LAYOUT_DIRECTION_RTL));
+    }
+
+    @Test
+    public void convertToRelativeDirection_isInverseOfAbsolute() {
+        assertEquals(START, SwipeDirections.convertToRelativeDirection(LEFT, LAYOUT_DIRECTION_LTR));
+        assertEquals(START, SwipeDirections.convertToRelativeDirection(RIGHT, LAYOUT_DIRECTION_RTL));
+        assertEquals(UP, SwipeDirections.convertToRelativeDirection(UP, LAYOUT_DIRECTION_RTL));
+    }
+
+    @Test
+    public void clampDx_keepsOnlyAllowedDirections() {
+        assertEquals(-20f, SwipeDirections.clampDx(-20f, LEFT), 0f);
+        assertEquals(0f, SwipeDirections.clampDx(20f, LEFT), 0f);
+        assertEquals(0f, SwipeDirections.clampDy(-5f, DOWN), 0f);
+    }
+
+    @Test
+    public void canStartSwipe_checksSlopAndDirection() {
+        assertFalse(SwipeDecisions.canStartSwipe(-5f, 0f, 8f, LEFT));
+        assertTrue(SwipeDecisions.canStartSwipe(-10f, 2f, 8f, LEFT));
+        assertFalse(SwipeDecisions.canStartSwipe(10f, 2f, 8f, LEFT));
+        assertFalse(SwipeDecisions.canStartSwipe(-2f, 10f, 8f, LEFT));
+        assertFalse(SwipeDecisions.canStartSwipe(-10f, 0f, 8f, 0));
+    }
+
+    @Test
+    public void resolveSwipeDirection_usesThresholdAndEscapeVelocity() {
+        // 距离不够,速度也不够.
+        assertEquals(0, SwipeDecisions.resolveSwipeDirection(LEFT, LEFT, LAYOUT_DIRECTION_LTR,
+                -100f, 0f, true, -50f, 0f, 120f, 540f, 960f));
+        // 距离超过阈值.
+        assertEquals(LEFT, SwipeDecisions.resolveSwipeDirection(LEFT, LEFT, LAYOUT_DIRECTION_LTR,
+                -600f, 0f, true, 0f, 0f, 120f, 540f, 960f));
+        // 逃逸速度.
+        assertEquals(LEFT, SwipeDecisions.resolveSwipeDirection(LEFT, LEFT, LAYOUT_DIRECTION_LTR,
+                -100f, 0f, true, -500f, 10f, 120f, 540f, 960f));
+        // 使用者设置的是START,返回相对方向.
+        assertEquals(START, SwipeDecisions.resolveSwipeDirection(LEFT, START, LAYOUT_DIRECTION_LTR,
+                -600f, 0f, false, 0f, 0f, 120f, 540f, 960f));
+    }
+}
@@ -0,0 +1,75 @@
+package cn.we.swipe.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SwipeStateMachineTest {
+
+    private SwipeStateMachine mMachine;
+
+    @Before
+    public void setUp() {
+        mMachine = new SwipeStateMachine();
+    }
+
+    @Test
+    public void initialState_isClosedAndCanSwipe() {
+        assertEquals(SwipeStateMachine.STATE_CLOSED, mMachine.getState());
+        assertFalse(mMachine.isOpen());
+        assertTrue(mMachine.canStartSwipe());
+    }
+
+    @Test
+    public void swipeThenOpen_isOpen() {
+        mMachine.onSwipeStarted();
+        assertEquals(SwipeStateMachine.STATE_SWIPING, mMachine.getState());
+        assertFalse(mMachine.isOpen());
+
+        mMachine.onOpenStarted();
+        assertTrue(mMachine.isOpen());
+        mMachine.onOpened();
+        assertEquals(SwipeStateMachine.STATE_OPEN, mMachine.getState());
+        assertTrue(mMachine.isOpen());
+    }
+
+    @Test
+    public void closing_isNotOpen() {
+        open();
+        mMachine.onCloseStarted();
+        assertEquals(SwipeStateMachine.STATE_CLOSING, mMachine.getState());
+        assertFalse(mMachine.isOpen());
+        mMachine.onClosed();
+        assertEquals(SwipeStateMachine.STATE_CLOSED, mMachine.getState());
+    }
+
+    @Test
+    public void block_preventsSwipeUntilClosed() {
+        open();
+        mMachine.block();
+        mMachine.onCloseStarted();
+        assertFalse(mMachine.canStartSwipe());
+        mMachine.onClosed();
+        assertTrue(mMachine.canStartSwipe());
+    }
+
+    @Test
+    public void unblock_allowsSwipeBeforeCloseEnds() {
+        open();
+        mMachine.block();
+        mMachine.onCloseStarted();
+        assertFalse(mMachine.canStartSwipe());
+        mMachine.unblock();
+        assertTrue(mMachine.canStartSwipe());
+        assertEquals(SwipeStateMachine.STATE_CLOSING, mMachine.getState());
+    }
+
+    private void open() {
+        mMachine.onSwipeStarted();
+        mMachine.onOpenStarted();
+        mMachine.onOpened();
+    }
+}